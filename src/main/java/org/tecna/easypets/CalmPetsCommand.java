@@ -10,6 +10,7 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
+import org.tecna.easypets.config.Config;
 import org.tecna.easypets.translation.TranslationManager;
 import org.tecna.easypets.util.PetWhitelistManager;
 
@@ -29,7 +30,7 @@ public class CalmPetsCommand {
     public static void register() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
             dispatcher.register(literal("calmpets")
-                    .executes(CalmPetsCommand::executeCalmPets));
+                    .executes(context -> PetWhitelistCommand.afterWhitelistLoaded(context, CalmPetsCommand::executeCalmPets)));
         });
     }
 
@@ -98,7 +99,9 @@ public class CalmPetsCommand {
             if (target instanceof ServerPlayerEntity playerTarget) {
                 PetWhitelistManager.getInstance().addPlayerToWhitelist(ownerUUID, playerTarget.getUuid(), playerTarget.getGameProfile().name());
             } else {
-                PetWhitelistManager.getInstance().addEntityUUIDToWhitelist(ownerUUID, target.getUuid());
+                // Calmed mobs only need to stay whitelisted for a while, and dead ones are pruned
+                PetWhitelistManager.getInstance().addEntityUUIDToWhitelist(ownerUUID, target.getUuid(),
+                        Config.getInstance().getCalmedEntityWhitelistMinutes());
             }
             
             return true;
@@ -6,6 +6,8 @@ import org.tecna.easypets.config.ConfigCommand;
 import org.tecna.easypets.config.Config;
 import org.tecna.easypets.translation.TranslationManager;
 import org.tecna.easypets.util.PerPlayerGlowManager;
+import org.tecna.easypets.util.PetLogger;
+import org.tecna.easypets.util.PetWhitelistManager;
 
 public class EasyPets implements ModInitializer {
 
@@ -17,18 +19,25 @@ public class EasyPets implements ModInitializer {
         TranslationManager.getInstance().initialize(config.getLanguage());
 
         PetChunkTickets.initialize();
+        PetUpkeep.initialize();
+        PetWhitelistManager.initialize();
         PetRecoveryCommand.register();
         ConfigCommand.register();
         CalmPetsCommand.register();
         PetWhitelistCommand.register();
         EasyPetsHelpCommand.register();
 
+        // Pet profiles can name entity types from other mods, which are only all registered by now
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> Config.refreshSnapshot());
+
+        // Debug messages are written to logs/easypets-debug.log off the server thread
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> PetLogger.start());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PetLogger.stop());
+
         // Register server shutdown handler to clean up glow sessions
         ServerLifecycleEvents.SERVER_STOPPING.register((server) -> {
             PerPlayerGlowManager.cleanupAll();
-            if (config.isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Cleaned up all glow sessions on server shutdown");
-            }
+            PetLogger.debug(PetLogger.Category.GLOW, () -> "Cleaned up all glow sessions on server shutdown");
         });
 
         System.out.println("[EasyPets] " + TranslationManager.getInstance().translate("easypets.init.message"));
@@ -38,6 +38,7 @@ public class EasyPetsHelpCommand {
         source.sendMessage(formatted("§7", "easypets.help.command.petwhitelist.remove"));
         source.sendMessage(formatted("§7", "easypets.help.command.petwhitelist.list"));
         source.sendMessage(formatted("§7", "easypets.help.command.petwhitelist.clear"));
+        source.sendMessage(formatted("§7", "easypets.help.command.petwhitelist.group"));
         source.sendMessage(Text.empty());
         source.sendMessage(formatted("§e", "easypets.help.section.management"));
         source.sendMessage(formatted("§7", "easypets.help.command.petconfig"));
@@ -0,0 +1,11 @@
+package org.tecna.easypets;
+
+/**
+ * Implemented by EntityType through EntityTypeMixin
+ */
+public interface EntityTypeIdHolder {
+    /**
+     * The type's raw registry id, looked up once instead of through the registry's map each time
+     */
+    int getCachedRawId();
+}
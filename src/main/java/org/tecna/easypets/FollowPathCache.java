@@ -0,0 +1,252 @@
+package org.tecna.easypets;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.ai.pathing.PathNode;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Short-lived follow paths, kept per owner for as long as the owner stays in the same spot.
+ * A pet asking for a path joins a cached one at the node nearest to it, so pets starting anywhere
+ * along an earlier pet's route reuse it instead of searching. Paths are dropped when the owner
+ * moves on, when they get old, or when a block changes along them. Expired entries are dropped
+ * as soon as a lookup or block change comes across them, so only live paths are checked.
+ *
+ * Server thread only.
+ */
+public class FollowPathCache {
+
+    private static final int PATH_LIFETIME_TICKS = 100;
+    private static final int OWNER_NEIGHBORHOOD = 1; // Blocks the owner can move before their paths are stale
+    private static final double JOIN_DISTANCE_SQUARED = 16.0; // Pets must be within 4 blocks of a cached path
+    private static final int MAX_TRAIL_OFFSET = 3; // Nodes other pets stop short of the path's end
+    private static final int MAX_PATHS_PER_OWNER = 4;
+
+    private static final Map<UUID, OwnerPaths> pathsByOwner = new HashMap<>();
+
+    // Lookups since startup
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long invalidatedPaths = 0;
+
+    /**
+     * Find a cached path the pet can join
+     * @param shared whether paths searched by other pets may be used
+     * @return a new path from the node nearest the pet, or null on a miss
+     */
+    public static Path find(TameableEntity pet, Entity owner, int currentTick, boolean shared) {
+        OwnerPaths owned = pathsByOwner.get(owner.getUuid());
+        if (owned != null && !owned.isValidFor(owner, currentTick)) {
+            pathsByOwner.remove(owner.getUuid());
+            owned = null;
+        }
+
+        if (owned != null) {
+            for (CachedPath cached : owned.paths) {
+                if (!shared && cached.searcherId != pet.getId()) continue;
+
+                Path trail = cached.trailFor(pet);
+                if (trail != null) {
+                    hits++;
+                    return trail;
+                }
+            }
+        }
+
+        misses++;
+        return null;
+    }
+
+    /**
+     * Keep a freshly searched path for the owner's other pets
+     */
+    public static void store(TameableEntity pet, Path path, Entity owner, int currentTick) {
+        OwnerPaths owned = pathsByOwner.get(owner.getUuid());
+        if (owned == null || !owned.isValidFor(owner, currentTick)) {
+            owned = new OwnerPaths(owner, currentTick);
+            pathsByOwner.put(owner.getUuid(), owned);
+        }
+
+        // A pet's new search replaces its old one
+        owned.paths.removeIf(cached -> cached.searcherId == pet.getId());
+        if (owned.paths.size() >= MAX_PATHS_PER_OWNER) {
+            owned.paths.remove(0);
+        }
+        owned.paths.add(new CachedPath(pet, path));
+    }
+
+    /**
+     * Drop cached paths that run next to a changed block
+     */
+    public static void onBlockChanged(World world, BlockPos pos) {
+        if (pathsByOwner.isEmpty()) return;
+
+        int currentTick = world.getServer().getTicks();
+        Iterator<OwnerPaths> owners = pathsByOwner.values().iterator();
+        while (owners.hasNext()) {
+            OwnerPaths owned = owners.next();
+            if (owned.isExpired(currentTick)) {
+                owners.remove();
+                continue;
+            }
+            if (owned.world != world) continue;
+
+            Iterator<CachedPath> iterator = owned.paths.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isNear(pos)) {
+                    iterator.remove();
+                    invalidatedPaths++;
+                }
+            }
+        }
+    }
+
+    public static void prune(int currentTick) {
+        pathsByOwner.values().removeIf(owned -> owned.isExpired(currentTick) || owned.paths.isEmpty());
+    }
+
+    public static void clear() {
+        pathsByOwner.clear();
+    }
+
+    public static long getHitCount() {
+        return hits;
+    }
+
+    public static long getMissCount() {
+        return misses;
+    }
+
+    public static long getInvalidatedCount() {
+        return invalidatedPaths;
+    }
+
+    /**
+     * Paths to one owner from while they stood in one spot
+     */
+    private static class OwnerPaths {
+        final World world;
+        final BlockPos ownerPos;
+        final int createdTick;
+        final List<CachedPath> paths = new ArrayList<>(MAX_PATHS_PER_OWNER);
+
+        OwnerPaths(Entity owner, int createdTick) {
+            this.world = owner.getEntityWorld();
+            this.ownerPos = owner.getBlockPos();
+            this.createdTick = createdTick;
+        }
+
+        boolean isExpired(int currentTick) {
+            return currentTick - createdTick > PATH_LIFETIME_TICKS;
+        }
+
+        boolean isValidFor(Entity owner, int currentTick) {
+            BlockPos pos = owner.getBlockPos();
+            return owner.getEntityWorld() == world
+                    && !isExpired(currentTick)
+                    && Math.abs(pos.getX() - ownerPos.getX()) <= OWNER_NEIGHBORHOOD
+                    && Math.abs(pos.getY() - ownerPos.getY()) <= OWNER_NEIGHBORHOOD
+                    && Math.abs(pos.getZ() - ownerPos.getZ()) <= OWNER_NEIGHBORHOOD;
+        }
+    }
+
+    /**
+     * One pet's path to the owner, as it was when the pet searched
+     */
+    private static class CachedPath {
+        final int searcherId;
+        final EntityType<?> type;
+        final List<PathNode> nodes;
+        final BlockPos target;
+        final int minX, minY, minZ, maxX, maxY, maxZ; // Bounds of the nodes, for block change checks
+        int followers = 0;
+
+        CachedPath(TameableEntity searcher, Path path) {
+            this.searcherId = searcher.getId();
+            this.type = searcher.getType();
+            this.target = path.getTarget();
+
+            // The searcher's navigation advances through the path, so keep our own node list
+            this.nodes = new ArrayList<>(path.getLength());
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+            for (int i = 0; i < path.getLength(); i++) {
+                PathNode node = path.getNode(i);
+                nodes.add(node);
+                minX = Math.min(minX, node.x);
+                minY = Math.min(minY, node.y);
+                minZ = Math.min(minZ, node.z);
+                maxX = Math.max(maxX, node.x);
+                maxY = Math.max(maxY, node.y);
+                maxZ = Math.max(maxZ, node.z);
+            }
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        /**
+         * Whether a block change at this position could affect the path.
+         * Pets stand on the block below a node and can be two blocks tall, so allow a block around it.
+         */
+        boolean isNear(BlockPos pos) {
+            if (pos.getX() < minX - 1 || pos.getX() > maxX + 1
+                    || pos.getY() < minY - 1 || pos.getY() > maxY + 2
+                    || pos.getZ() < minZ - 1 || pos.getZ() > maxZ + 1) {
+                return false;
+            }
+
+            for (PathNode node : nodes) {
+                if (Math.abs(pos.getX() - node.x) <= 1 && Math.abs(pos.getZ() - node.z) <= 1
+                        && pos.getY() >= node.y - 1 && pos.getY() <= node.y + 2) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The part of the path from the node nearest the pet, or null if the pet can't use it
+         */
+        Path trailFor(TameableEntity pet) {
+            // Pets of another kind may be a different size or fly, so they can't walk the same nodes
+            if (pet.getType() != type) return null;
+
+            int nearest = -1;
+            double nearestDistance = JOIN_DISTANCE_SQUARED;
+            for (int i = 0; i < nodes.size(); i++) {
+                PathNode node = nodes.get(i);
+                double distance = pet.squaredDistanceTo(node.x + 0.5, node.y, node.z + 0.5);
+                if (distance < nearestDistance) {
+                    nearest = i;
+                    nearestDistance = distance;
+                }
+            }
+
+            // Other pets each stop a little further back than the one before, so the pack trails behind
+            int end = nodes.size();
+            if (pet.getId() != searcherId) {
+                end -= Math.min(followers + 1, MAX_TRAIL_OFFSET);
+            }
+            if (nearest < 0 || nearest >= end) return null;
+
+            if (pet.getId() != searcherId) {
+                followers++;
+            }
+            return new Path(new ArrayList<>(nodes.subList(nearest, end)), target, true);
+        }
+    }
+}
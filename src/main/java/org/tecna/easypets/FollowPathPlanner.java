@@ -0,0 +1,276 @@
+package org.tecna.easypets;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ai.pathing.EntityNavigation;
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.server.MinecraftServer;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
+
+import java.util.PriorityQueue;
+
+/**
+ * Decides how a following pet gets its path to its owner.
+ * FollowOwnerGoal asks for a new path every 10 ticks, and with a large navigation range every
+ * pet in a pack runs its own long search to the same owner. Instead, searched paths go into
+ * FollowPathCache and the first pet of a kind to search becomes the pack leader: the others join
+ * its path at the node nearest to them and stop a few nodes short of its end, so the pack trails
+ * behind instead of piling onto one block. A pet whose cached path gets it stuck searches on its
+ * own next time. Only navigation timing out on a path counts as stuck - a goal restart or a
+ * teleport also drops the path, but says nothing about whether it fitted.
+ *
+ * Searches that do run share a per-tick budget of estimated path nodes. When an owner teleports,
+ * every pet asks for a long path on the same tick; once the budget is spent the rest wait in a
+ * queue, closest pets first, and keep walking their previous path (or teleport) meanwhile.
+ * A request that waits longer than MAX_QUEUE_WAIT_TICKS expires, so a far pet stuck behind
+ * closer ones asks again instead of waiting for good.
+ * A pet whose search alone would cost more than teleportPathCostBudget teleports to a safe spot
+ * near its owner instead, and only searches if there is no such spot.
+ *
+ * With enableFollowPathCache off nothing is cached or looked up, and every pet searches the way
+ * vanilla does.
+ *
+ * Server thread only.
+ */
+public class FollowPathPlanner {
+
+    public static final byte FOLLOWING_OWN_PATH = 0;
+    public static final byte FOLLOWING_CACHED_PATH = 1;
+    public static final byte STUCK_ON_CACHED_PATH = 2;
+
+    private static final int PRUNE_INTERVAL_TICKS = 200;
+
+    public static final int NOT_QUEUED = -1;
+    private static final int MAX_QUEUE_WAIT_TICKS = 20; // The goal asks again by then anyway
+    // Rough A* cost in open terrain - only used to share the budget out, not to limit the search
+    private static final int NODES_PER_BLOCK = 4;
+    private static final int MIN_SEARCH_COST = 32;
+
+    private static final PriorityQueue<FollowRequest> requests = new PriorityQueue<>();
+    private static int budgetSpent = 0; // Estimated nodes searched this tick
+
+    // Since startup
+    private static long deferredSearches = 0;
+    private static long teleportsInsteadOfSearch = 0;
+
+    public static void initialize() {
+        ServerTickEvents.START_SERVER_TICK.register(FollowPathPlanner::onStartTick);
+        ServerTickEvents.END_SERVER_TICK.register(FollowPathPlanner::onServerTick);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            FollowPathCache.clear();
+            requests.clear();
+        });
+    }
+
+    /**
+     * Replaces FollowOwnerGoal's navigation.startMovingTo(owner, speed)
+     * @return true if the pet started moving along a path
+     */
+    public static boolean startFollowing(TameableEntity pet, EntityNavigation navigation, Entity owner, double speed) {
+        ConfigSnapshot config = Config.snapshot();
+        int slot = PetStateStore.getOrCreate(pet);
+        int currentTick = pet.getEntityWorld().getServer().getTicks();
+
+        // Still waiting for a search - keep walking whatever path the pet already has
+        int requestTick = PetStateStore.followRequestTick[slot];
+        if (requestTick != NOT_QUEUED) {
+            if (currentTick - requestTick <= MAX_QUEUE_WAIT_TICKS) {
+                return !navigation.isIdle();
+            }
+            // Waited too long - the old entry is skipped once it reaches the front, and the pet asks again below
+            PetStateStore.followRequestTick[slot] = NOT_QUEUED;
+        }
+
+        // Navigation timed out on a cached path, so it didn't fit this pet
+        boolean blocked = PetStateStore.followMode[slot] == STUCK_ON_CACHED_PATH;
+
+        boolean useCache = config.isEnabled(ConfigSnapshot.FOLLOW_PATH_CACHE);
+        if (useCache && !blocked) {
+            Path cached = FollowPathCache.find(pet, owner, currentTick, config.isEnabled(ConfigSnapshot.PACK_PATHFINDING));
+            if (cached != null && navigation.startMovingAlong(cached, speed)) {
+                PetStateStore.followMode[slot] = FOLLOWING_CACHED_PATH;
+                return true;
+            }
+        }
+
+        // Compared before the navigation cap, which with a short follow range would hide a long trip
+        int distanceCost = estimateDistanceCost(pet, owner);
+        if (distanceCost > config.teleportPathCostBudget && teleportInstead(pet)) {
+            return false; // Teleporting stops navigation, same as vanilla's own teleport
+        }
+
+        int cost = capSearchCost(distanceCost, pet, config);
+
+        if (isOverBudget(cost, config)) {
+            PetStateStore.followRequestTick[slot] = currentTick;
+            requests.add(new FollowRequest(pet, owner, speed, currentTick));
+            deferredSearches++;
+            return !navigation.isIdle();
+        }
+
+        return search(pet, slot, navigation, owner, speed, cost, currentTick, useCache);
+    }
+
+    /**
+     * Called when navigation drops a path because the mob made no progress along it
+     */
+    public static void onPathTimedOut(MobEntity mob) {
+        if (!(mob instanceof TameableEntity pet)) return;
+
+        int slot = PetStateStore.find(pet);
+        if (slot != PetStateStore.NO_SLOT && PetStateStore.followMode[slot] == FOLLOWING_CACHED_PATH) {
+            PetStateStore.followMode[slot] = STUCK_ON_CACHED_PATH;
+        }
+    }
+
+    private static boolean search(TameableEntity pet, int slot, EntityNavigation navigation, Entity owner, double speed,
+                                  int cost, int currentTick, boolean useCache) {
+        budgetSpent += cost;
+        PetStateStore.followMode[slot] = FOLLOWING_OWN_PATH;
+
+        // Same as vanilla startMovingTo, but keep the result so the rest of the pack can use it
+        Path path = navigation.findPathTo(owner, 1);
+        if (path == null) return false;
+
+        if (useCache && path.reachesTarget()) {
+            FollowPathCache.store(pet, path, owner, currentTick);
+        }
+        return navigation.startMovingAlong(path, speed);
+    }
+
+    /**
+     * Teleport near the owner the same way vanilla does past the teleport distance
+     * @return true if a safe spot was found and the pet moved
+     */
+    private static boolean teleportInstead(TameableEntity pet) {
+        double x = pet.getX(), y = pet.getY(), z = pet.getZ();
+        pet.tryTeleportToOwner();
+
+        boolean teleported = pet.getX() != x || pet.getY() != y || pet.getZ() != z;
+        if (teleported) {
+            teleportsInsteadOfSearch++;
+        }
+        return teleported;
+    }
+
+    private static boolean isOverBudget(int cost, ConfigSnapshot config) {
+        // The first search of a tick always runs, however long, so nothing can starve
+        return budgetSpent > 0 && budgetSpent + cost > config.followPathNodeBudget;
+    }
+
+    /**
+     * What a search to the owner would cost if navigation had no node limit
+     */
+    private static int estimateDistanceCost(TameableEntity pet, Entity owner) {
+        double distance = Math.abs(owner.getX() - pet.getX()) + Math.abs(owner.getY() - pet.getY()) + Math.abs(owner.getZ() - pet.getZ());
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_SEARCH_COST, distance * NODES_PER_BLOCK));
+    }
+
+    private static int capSearchCost(int distanceCost, TameableEntity pet, ConfigSnapshot config) {
+        // Navigation caps a search at 16 nodes per block of follow range
+        return Math.min(config.profileFor(pet).navigationScanningRange * 16, distanceCost);
+    }
+
+    public static long getDeferredSearchCount() {
+        return deferredSearches;
+    }
+
+    public static int getQueuedRequestCount() {
+        return requests.size();
+    }
+
+    public static long getTeleportsInsteadOfSearchCount() {
+        return teleportsInsteadOfSearch;
+    }
+
+    private static void onStartTick(MinecraftServer server) {
+        budgetSpent = 0;
+        if (requests.isEmpty()) return;
+
+        // Pets that were kept waiting get the first share of the new tick's budget
+        ConfigSnapshot config = Config.snapshot();
+        int currentTick = server.getTicks();
+
+        // Far requests can sit behind closer ones for good, so drop expired ones from the whole queue now and then
+        if (currentTick % MAX_QUEUE_WAIT_TICKS == 0) {
+            requests.removeIf(request -> isExpired(request, currentTick));
+        }
+
+        while (!requests.isEmpty()) {
+            FollowRequest request = requests.peek();
+            if (isExpired(request, currentTick)) {
+                requests.poll();
+                continue;
+            }
+
+            TameableEntity pet = request.pet;
+            int slot = PetStateStore.find(pet);
+            int cost = capSearchCost(estimateDistanceCost(pet, request.owner), pet, config);
+            if (isOverBudget(cost, config)) break;
+
+            requests.poll();
+            PetStateStore.followRequestTick[slot] = NOT_QUEUED;
+            search(pet, slot, pet.getNavigation(), request.owner, request.speed, cost, currentTick,
+                    config.isEnabled(ConfigSnapshot.FOLLOW_PATH_CACHE));
+        }
+    }
+
+    /**
+     * Whether a queued request no longer needs a search. Clears the pet's queued mark when it does.
+     */
+    private static boolean isExpired(FollowRequest request, int currentTick) {
+        TameableEntity pet = request.pet;
+
+        // The pet unloaded or its slot went to another entity, or it already asked again
+        int slot = PetStateStore.find(pet);
+        if (pet.isRemoved() || slot == PetStateStore.NO_SLOT || PetStateStore.followRequestTick[slot] != request.requestedTick) {
+            return true;
+        }
+
+        // The pet stopped following or waited long enough that the goal will ask again
+        if (currentTick - request.requestedTick > MAX_QUEUE_WAIT_TICKS || request.owner.isRemoved()
+                || pet.isSitting() || pet.getOwner() != request.owner) {
+            PetStateStore.followRequestTick[slot] = NOT_QUEUED;
+            return true;
+        }
+        return false;
+    }
+
+    private static void onServerTick(MinecraftServer server) {
+        if (!Config.snapshot().isEnabled(ConfigSnapshot.FOLLOW_PATH_CACHE)) {
+            // Turned off - drop what's cached so block changes stop checking it
+            FollowPathCache.clear();
+        } else if (server.getTicks() % PRUNE_INTERVAL_TICKS == 0) {
+            FollowPathCache.prune(server.getTicks());
+        }
+    }
+
+    /**
+     * A search that didn't fit in its tick's budget. Pets closest to their owner go first,
+     * since those are the ones the player is watching - far pets are likely to teleport anyway.
+     */
+    private static class FollowRequest implements Comparable<FollowRequest> {
+        final TameableEntity pet;
+        final Entity owner;
+        final double speed;
+        final int requestedTick;
+        final double distanceSquared;
+
+        FollowRequest(TameableEntity pet, Entity owner, double speed, int requestedTick) {
+            this.pet = pet;
+            this.owner = owner;
+            this.speed = speed;
+            this.requestedTick = requestedTick;
+            this.distanceSquared = pet.squaredDistanceTo(owner);
+        }
+
+        @Override
+        public int compareTo(FollowRequest other) {
+            return Double.compare(this.distanceSquared, other.distanceSquared);
+        }
+    }
+}
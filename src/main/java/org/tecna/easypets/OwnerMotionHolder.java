@@ -0,0 +1,5 @@
+package org.tecna.easypets;
+
+public interface OwnerMotionHolder {
+    OwnerMotionTracker getOwnerMotion();
+}
@@ -0,0 +1,77 @@
+package org.tecna.easypets;
+
+/**
+ * Smoothed motion estimate for one player, updated once per tick.
+ * Every pet following the player reads the same estimate instead of sampling the owner itself.
+ */
+public class OwnerMotionTracker {
+
+    // Weight of the newest sample - roughly averages the last 4-5 ticks
+    private static final double SMOOTHING = 0.25;
+    // Anything faster is a teleport or dimension change, not movement
+    private static final double MAX_TRACKED_SPEED = 10.0; // blocks per tick
+
+    private double lastX, lastY, lastZ;
+    private boolean hasSample = false;
+
+    private double velocityX, velocityY, velocityZ; // blocks per tick
+    private double accelerationX, accelerationZ; // blocks per tick squared
+
+    public void update(double x, double y, double z) {
+        if (!hasSample) {
+            setPosition(x, y, z);
+            hasSample = true;
+            return;
+        }
+
+        double rawX = x - lastX;
+        double rawY = y - lastY;
+        double rawZ = z - lastZ;
+        setPosition(x, y, z);
+
+        if (rawX * rawX + rawY * rawY + rawZ * rawZ > MAX_TRACKED_SPEED * MAX_TRACKED_SPEED) {
+            // Teleported - start over from the new position
+            velocityX = velocityY = velocityZ = 0;
+            accelerationX = accelerationZ = 0;
+            return;
+        }
+
+        double newVelocityX = velocityX + SMOOTHING * (rawX - velocityX);
+        double newVelocityZ = velocityZ + SMOOTHING * (rawZ - velocityZ);
+        accelerationX += SMOOTHING * ((newVelocityX - velocityX) - accelerationX);
+        accelerationZ += SMOOTHING * ((newVelocityZ - velocityZ) - accelerationZ);
+
+        velocityX = newVelocityX;
+        velocityY += SMOOTHING * (rawY - velocityY);
+        velocityZ = newVelocityZ;
+    }
+
+    private void setPosition(double x, double y, double z) {
+        lastX = x;
+        lastY = y;
+        lastZ = z;
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityZ() {
+        return velocityZ;
+    }
+
+    public double getAccelerationX() {
+        return accelerationX;
+    }
+
+    public double getAccelerationZ() {
+        return accelerationZ;
+    }
+
+    /**
+     * Smoothed speed including vertical movement, in blocks per second
+     */
+    public double getSpeedPerSecond() {
+        return Math.sqrt(velocityX * velocityX + velocityY * velocityY + velocityZ * velocityZ) * 20;
+    }
+}
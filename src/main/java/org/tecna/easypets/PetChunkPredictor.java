@@ -0,0 +1,76 @@
+package org.tecna.easypets;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
+import org.tecna.easypets.util.PetLogger;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Preloads chunks along a fast-travelling owner's trajectory.
+ * When a player flies with an elytra or rides a boat on ice, pets that teleport after them
+ * land in chunks the server would otherwise have to load synchronously. Placing short-lived,
+ * load-only tickets a few chunks ahead lets that loading happen asynchronously beforehand.
+ */
+public class PetChunkPredictor {
+
+    // Below this speed the regular follow tickets keep up on their own (sprinting is ~0.28 blocks/tick)
+    private static final double MIN_PREDICTION_SPEED = 0.6; // blocks per tick
+    // Anything faster is a teleport or dimension change, not travel (blue ice boats peak around 3.6)
+    private static final double MAX_PREDICTION_SPEED = 5.0;
+    private static final int LOOKAHEAD_TICKS = 60; // Predict up to 3 seconds ahead
+    private static final double STEP_BLOCKS = 16.0; // One chunk per prediction step
+
+    /**
+     * Place prediction tickets ahead of a player
+     * @param motion the player's smoothed motion estimate
+     * @return number of chunks that received a prediction ticket
+     */
+    public static int preloadAhead(ServerPlayerEntity player, OwnerMotionTracker motion) {
+        ConfigSnapshot config = Config.snapshot();
+        if (!config.isEnabled(ConfigSnapshot.PREDICTIVE_CHUNK_LOADING)) return 0;
+
+        double velocityX = motion.getVelocityX();
+        double velocityZ = motion.getVelocityZ();
+        double speed = Math.sqrt(velocityX * velocityX + velocityZ * velocityZ);
+        if (speed < MIN_PREDICTION_SPEED || speed > MAX_PREDICTION_SPEED) return 0;
+
+        double directionX = velocityX / speed;
+        double directionZ = velocityZ / speed;
+
+        // Account for speeding up or slowing down along the direction of travel
+        double acceleration = motion.getAccelerationX() * directionX + motion.getAccelerationZ() * directionZ;
+        double lookaheadBlocks = speed * LOOKAHEAD_TICKS + 0.5 * acceleration * LOOKAHEAD_TICKS * LOOKAHEAD_TICKS;
+        lookaheadBlocks = Math.max(0, Math.min(lookaheadBlocks, MAX_PREDICTION_SPEED * LOOKAHEAD_TICKS));
+        int steps = Math.min(config.maxPredictedChunks, (int) Math.ceil(lookaheadBlocks / STEP_BLOCKS));
+
+        ServerWorld world = (ServerWorld) player.getEntityWorld();
+        ChunkPos currentChunk = player.getChunkPos();
+        Set<ChunkPos> predicted = new HashSet<>();
+
+        for (int step = 1; step <= steps; step++) {
+            double distance = Math.min(step * STEP_BLOCKS, lookaheadBlocks);
+            ChunkPos chunkPos = new ChunkPos(
+                    (int) Math.floor(player.getX() + directionX * distance) >> 4,
+                    (int) Math.floor(player.getZ() + directionZ * distance) >> 4
+            );
+
+            if (chunkPos.equals(currentChunk) || !predicted.add(chunkPos)) {
+                continue;
+            }
+
+            // Radius 0 keeps the ticket at the lowest level that still loads the chunk and its entities
+            world.getChunkManager().addTicket(PetChunkTickets.PET_PREDICTION_TICKET_TYPE, chunkPos, 0);
+        }
+
+        if (!predicted.isEmpty()) {
+            PetLogger.debug(PetLogger.Category.TICKETS, () -> "Preloading " + predicted.size() + " chunks ahead of " + player.getGameProfile().name() + " (" + String.format("%.1f", speed * 20) + " blocks/s)");
+        }
+
+        return predicted.size();
+    }
+}
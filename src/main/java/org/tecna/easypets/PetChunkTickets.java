@@ -16,7 +16,44 @@ public class PetChunkTickets {
             )
     );
 
+    // Separate type for /petrecovery so releasing a recovered chunk never drops a follow ticket
+    // Renewed by PetRecoveryTickets until the recovered pets have arrived
+    public static final ChunkTicketType PET_RECOVERY_TICKET_TYPE = Registry.register(
+            Registries.TICKET_TYPE,
+            "pet_recovery_loader",
+            new ChunkTicketType(
+                    100L,
+                    ChunkTicketType.FOR_LOADING | ChunkTicketType.FOR_SIMULATION | ChunkTicketType.RESETS_IDLE_TIMEOUT
+            )
+    );
+
+    // Short-lived, load-only ticket placed ahead of fast-travelling owners
+    // Chunks are loaded but never ticked, so pets teleporting in don't force a synchronous load
+    public static final ChunkTicketType PET_PREDICTION_TICKET_TYPE = Registry.register(
+            Registries.TICKET_TYPE,
+            "pet_prediction_loader",
+            new ChunkTicketType(
+                    40L, // 2 seconds - predictions are refreshed every 5 ticks while moving
+                    ChunkTicketType.FOR_LOADING
+            )
+    );
+
+    // Minimum radius that keeps a single chunk entity-ticking (level 31)
+    public static final int ENTITY_TICKING_RADIUS = 2;
+
+    // Ticket moves skipped thanks to border hysteresis (server thread only)
+    private static long avoidedTicketMoves = 0;
+
+    public static void recordAvoidedMove() {
+        avoidedTicketMoves++;
+    }
+
+    public static long getAvoidedTicketMoves() {
+        return avoidedTicketMoves;
+    }
+
     public static void initialize() {
         // Registration happens when this class is loaded
+        PetRecoveryTickets.initialize();
     }
-}
\ No newline at end of file
+}
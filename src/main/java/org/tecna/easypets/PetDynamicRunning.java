@@ -0,0 +1,148 @@
+package org.tecna.easypets;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.entity.attribute.EntityAttributeModifier;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.entity.passive.ParrotEntity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.util.Identifier;
+import org.tecna.easypets.config.ConfigSnapshot;
+
+public class PetDynamicRunning {
+
+    private static final Identifier SPEED_MODIFIER_ID = Identifier.of("easypets", "dynamic_pet_speed");
+
+    // One modifier per quantized step, shared by every pet so steady packs never allocate
+    // Attribute instances keep the modifier we hand them, so an identity check tells us if anything changed
+    private static final Int2ObjectOpenHashMap<EntityAttributeModifier> modifiersByStep = new Int2ObjectOpenHashMap<>();
+    private static double cachedStep = 0.0;
+
+    public static void tick(TameableEntity pet, ConfigSnapshot config) {
+        // Exclude parrots (handled separately)
+        if (pet instanceof ParrotEntity) return; // Parrots handled by FlightMoveControlMixin
+
+        if (!(pet.getOwner() instanceof PlayerEntity owner)) return;
+
+        if (!config.isEnabled(ConfigSnapshot.DYNAMIC_RUNNING)) {
+            removeSpeedModifier(pet);
+            return;
+        }
+
+        // Calculate distance to owner
+        double distanceToOwner = pet.distanceTo(owner);
+
+        // Don't adjust speed if pet is sitting, very close, or busy with other activities
+        if (shouldSkipSpeedAdjustment(pet, distanceToOwner)) {
+            removeSpeedModifier(pet);
+            return;
+        }
+
+        // Owner speed is tracked once per player and shared by all of their pets
+        double playerSpeed = owner instanceof OwnerMotionHolder holder ? holder.getOwnerMotion().getSpeedPerSecond() : 0.0;
+
+        // Calculate target speed multiplier
+        double targetSpeedMultiplier = calculateSpeedMultiplier(distanceToOwner, playerSpeed, config, config.profileFor(pet));
+
+        // Apply the modifier
+        applySpeedModifier(pet, targetSpeedMultiplier, config);
+    }
+
+    /**
+     * Remove any running boost from a pet
+     */
+    public static void clear(TameableEntity pet) {
+        removeSpeedModifier(pet);
+    }
+
+    private static boolean shouldSkipSpeedAdjustment(TameableEntity tameable, double distanceToOwner) {
+        // Skip if sitting
+        if (tameable.isSitting()) return true;
+
+        // Skip if very close
+        if (distanceToOwner < 2.0) return true;
+
+        // Skip if pet is chasing/fighting other mobs
+        if (tameable.getTarget() != null) return true;
+        if (tameable.isAttacking()) return true;
+
+        return false;
+    }
+
+    private static double calculateSpeedMultiplier(double distance, double playerSpeed, ConfigSnapshot config, ConfigSnapshot.Profile profile) {
+        double targetDistance = config.runningTargetDistance; // Default 4.0
+        double maxMultiplier = profile.maxRunningMultiplier; // Default 1.6
+        double speedThreshold = config.playerMovementThreshold; // Default 0.1
+
+        // Far away pets always run fast
+        if (distance > config.runningFarDistance) {
+            return maxMultiplier;
+        }
+
+        // Player not moving - normal speed
+        if (playerSpeed <= speedThreshold) {
+            return 1.0;
+        }
+
+        // Player moving - adjust based on distance to target
+        if (distance > targetDistance) {
+            // Pet behind target - speed up proportionally
+            double speedBoost = (distance - targetDistance) / targetDistance;
+            return 1.0 + Math.min(speedBoost, maxMultiplier - 1.0);
+        } else {
+            // Pet at or ahead of target - slightly slower to avoid overshooting
+            return 0.9;
+        }
+    }
+
+    private static void applySpeedModifier(TameableEntity tameable, double multiplier, ConfigSnapshot config) {
+        // Only handle ground-based pets (parrots handled separately)
+        var attributeInstance = tameable.getAttributeInstance(EntityAttributes.MOVEMENT_SPEED);
+        if (attributeInstance == null) return;
+
+        EntityAttributeModifier modifier = getModifier(multiplier, config.runningMultiplierStep);
+        EntityAttributeModifier current = attributeInstance.getModifier(SPEED_MODIFIER_ID);
+
+        // Same step as last time - nothing to update or sync
+        if (current == modifier) return;
+
+        if (current != null) {
+            attributeInstance.removeModifier(SPEED_MODIFIER_ID);
+        }
+        if (modifier != null) {
+            attributeInstance.addTemporaryModifier(modifier);
+        }
+    }
+
+    /**
+     * Shared modifier for the step nearest to the multiplier, or null for normal speed
+     */
+    private static EntityAttributeModifier getModifier(double multiplier, double step) {
+        if (step != cachedStep) {
+            modifiersByStep.clear();
+            cachedStep = step;
+        }
+
+        int stepIndex = (int) Math.round((multiplier - 1.0) / step);
+        if (stepIndex == 0) return null;
+
+        EntityAttributeModifier modifier = modifiersByStep.get(stepIndex);
+        if (modifier == null) {
+            modifier = new EntityAttributeModifier(
+                    SPEED_MODIFIER_ID,
+                    stepIndex * step,
+                    EntityAttributeModifier.Operation.ADD_MULTIPLIED_BASE
+            );
+            modifiersByStep.put(stepIndex, modifier);
+        }
+        return modifier;
+    }
+
+    private static void removeSpeedModifier(TameableEntity tameable) {
+        // Only handle ground-based pets (parrots handled separately)
+        var movementInstance = tameable.getAttributeInstance(EntityAttributes.MOVEMENT_SPEED);
+        if (movementInstance != null && movementInstance.getModifier(SPEED_MODIFIER_ID) != null) {
+            movementInstance.removeModifier(SPEED_MODIFIER_ID);
+        }
+    }
+}
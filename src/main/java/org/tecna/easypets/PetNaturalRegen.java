@@ -0,0 +1,262 @@
+package org.tecna.easypets;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
+import org.tecna.easypets.util.PetLogger;
+
+import java.util.PriorityQueue;
+
+/**
+ * Natural regeneration driven by a schedule instead of per-tick polling.
+ * A damaged pet is scheduled for its first regen once the delay has passed, then every second
+ * until it reaches the configured cap. Each server tick only looks at the pets that are due.
+ *
+ * Pets also remember when they were last hurt and last saved, in game time. When an unloaded
+ * pet loads again it gets the regen it would have had in the meantime in one step. Like live
+ * regen, that only happens while the owner is online.
+ *
+ * While regen is turned off, scheduled pets stay scheduled and just skip their turn. When the
+ * config changes, loaded pets that dropped out of the schedule at the old cap are put back.
+ * Pets that get hurt without being hit as a tamed pet, such as one tamed while already hurt,
+ * are picked up by the once-a-second check from PetUpkeep.
+ *
+ * Server thread only.
+ */
+public class PetNaturalRegen {
+
+    public static final int NOT_SCHEDULED = -1;
+    public static final long NO_SAVED_TIME = -1L;
+    private static final int REGEN_INTERVAL_TICKS = 20;
+
+    private static final PriorityQueue<ScheduledRegen> schedule = new PriorityQueue<>();
+    private static ConfigSnapshot scheduledWith = null; // Config the schedule was last checked against
+
+    public static void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(PetNaturalRegen::onServerTick);
+
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (entity instanceof TameableEntity pet && pet.isTamed()) {
+                onPetLoaded(pet, world);
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            schedule.clear();
+            scheduledWith = null;
+        });
+    }
+
+    public static void onDamaged(TameableEntity pet) {
+        ServerWorld world = (ServerWorld) pet.getEntityWorld();
+        PetStateStore.lastDamageTime[PetStateStore.getOrCreate(pet)] = world.getTime();
+
+        // Reset the damage timer
+        scheduleAfterDelay(pet, world.getServer().getTicks());
+
+        PetLogger.debug(PetLogger.Category.REGEN, () -> "Pet " + pet.getUuid() + " took damage, resetting regen timer");
+    }
+
+    /**
+     * Schedule a hurt pet that isn't scheduled yet. Called from upkeep once per second.
+     */
+    public static void checkScheduled(TameableEntity pet, int slot, ConfigSnapshot config) {
+        if (PetStateStore.regenDueTick[slot] != NOT_SCHEDULED || !config.isEnabled(ConfigSnapshot.NATURAL_REGEN)) return;
+
+        ServerWorld world = (ServerWorld) pet.getEntityWorld();
+        if (scheduleIfHurt(pet, slot, config, world, world.getServer().getTicks())) {
+            PetLogger.debug(PetLogger.Category.REGEN, () -> "Pet " + pet.getUuid() + " is hurt but wasn't scheduled, scheduling regen");
+        }
+    }
+
+    /**
+     * Game time of the pet's last damage, for saving
+     */
+    public static long getLastDamageTime(TameableEntity pet) {
+        int slot = PetStateStore.find(pet);
+        return slot == PetStateStore.NO_SLOT ? 0L : PetStateStore.lastDamageTime[slot];
+    }
+
+    /**
+     * Restore the game times saved with a pet, before it is added to the world
+     */
+    public static void restoreTimes(TameableEntity pet, long lastDamageTime, long lastUpdateTime) {
+        int slot = PetStateStore.getOrCreate(pet);
+        PetStateStore.lastDamageTime[slot] = lastDamageTime;
+        PetStateStore.savedUpdateTime[slot] = lastUpdateTime;
+    }
+
+    private static void onPetLoaded(TameableEntity pet, ServerWorld world) {
+        int slot = PetStateStore.getOrCreate(pet);
+        long savedUpdateTime = PetStateStore.savedUpdateTime[slot];
+        PetStateStore.savedUpdateTime[slot] = NO_SAVED_TIME;
+
+        if (pet.getHealth() >= pet.getMaxHealth()) return;
+
+        // Pets saved before we kept game times start healing after the regen delay, same as a pet that was just hit
+        if (savedUpdateTime == NO_SAVED_TIME) {
+            scheduleAfterDelay(pet, world.getServer().getTicks());
+            return;
+        }
+
+        ConfigSnapshot config = Config.snapshot();
+        if (!config.isEnabled(ConfigSnapshot.NATURAL_REGEN)) return;
+
+        ConfigSnapshot.Profile profile = config.profileFor(pet);
+        long now = world.getTime();
+        long firstRegenTime = PetStateStore.lastDamageTime[slot] + profile.regenDelayTicks + REGEN_INTERVAL_TICKS - 1;
+        long missedRegens = countRegensUntil(now, firstRegenTime) - countRegensUntil(savedUpdateTime, firstRegenTime);
+
+        float maxRegenHealth = pet.getMaxHealth() * profile.regenMaxHealthPercent;
+        // Same rule as regenerate(): a pet with its owner offline doesn't heal, loaded or not
+        boolean ownerOnline = pet.getOwner() instanceof PlayerEntity;
+        if (missedRegens > 0 && ownerOnline && pet.getHealth() < maxRegenHealth) {
+            float newHealth = (float) Math.min(pet.getHealth() + (double) profile.regenAmountPerSecond * missedRegens, maxRegenHealth);
+            pet.setHealth(newHealth);
+
+            PetLogger.debug(PetLogger.Category.REGEN, () -> "Pet " + pet.getUuid() + " caught up " + missedRegens + " seconds of regen while unloaded, now " + newHealth + "/" + pet.getMaxHealth() + " health");
+        }
+
+        if (pet.getHealth() < maxRegenHealth) {
+            // Keep the same one-second rhythm the pet had before it unloaded
+            long nextRegenTime = now < firstRegenTime ? firstRegenTime
+                    : firstRegenTime + countRegensUntil(now, firstRegenTime) * REGEN_INTERVAL_TICKS;
+            schedule(pet, world.getServer().getTicks() + (int) (nextRegenTime - now));
+        }
+    }
+
+    /**
+     * Number of regens due at or before the given game time
+     */
+    private static long countRegensUntil(long time, long firstRegenTime) {
+        return time < firstRegenTime ? 0 : (time - firstRegenTime) / REGEN_INTERVAL_TICKS + 1;
+    }
+
+    private static void scheduleAfterDelay(TameableEntity pet, int currentTick) {
+        // The old per-tick counter counted the tick the delay ran out as its first tick,
+        // so the first regen lands 19 ticks after that
+        schedule(pet, currentTick + Config.snapshot().profileFor(pet).regenDelayTicks + REGEN_INTERVAL_TICKS - 1);
+    }
+
+    private static void schedule(TameableEntity pet, int dueTick) {
+        int slot = PetStateStore.getOrCreate(pet);
+        PetStateStore.regenDueTick[slot] = dueTick;
+        schedule.add(new ScheduledRegen(pet, dueTick));
+    }
+
+    private static void onServerTick(MinecraftServer server) {
+        int currentTick = server.getTicks();
+
+        ConfigSnapshot config = Config.snapshot();
+        if (config != scheduledWith) {
+            if (scheduledWith != null) {
+                rescheduleHurtPets(server, currentTick);
+            }
+            scheduledWith = config;
+        }
+
+        while (!schedule.isEmpty() && schedule.peek().dueTick <= currentTick) {
+            ScheduledRegen entry = schedule.poll();
+            TameableEntity pet = entry.pet;
+
+            // Unloaded pets are rescheduled when they load again
+            if (pet.isRemoved()) continue;
+
+            // Skip entries replaced by a later damage
+            int slot = PetStateStore.find(pet);
+            if (slot == PetStateStore.NO_SLOT || PetStateStore.regenDueTick[slot] != entry.dueTick) continue;
+            PetStateStore.regenDueTick[slot] = NOT_SCHEDULED;
+
+            if (regenerate(pet)) {
+                schedule(pet, entry.dueTick + REGEN_INTERVAL_TICKS);
+            }
+        }
+    }
+
+    /**
+     * Put back loaded pets that left the schedule, for when regen was turned on or its cap raised
+     */
+    private static void rescheduleHurtPets(MinecraftServer server, int currentTick) {
+        ConfigSnapshot config = Config.snapshot();
+        if (!config.isEnabled(ConfigSnapshot.NATURAL_REGEN)) return;
+
+        int rescheduled = 0;
+        for (ServerWorld world : server.getWorlds()) {
+            for (Entity entity : world.iterateEntities()) {
+                if (!(entity instanceof TameableEntity pet) || !pet.isTamed() || pet.isDead()) continue;
+
+                int slot = PetStateStore.find(pet);
+                if (slot == PetStateStore.NO_SLOT || PetStateStore.regenDueTick[slot] != NOT_SCHEDULED) continue;
+
+                if (scheduleIfHurt(pet, slot, config, world, currentTick)) {
+                    rescheduled++;
+                }
+            }
+        }
+
+        int count = rescheduled;
+        PetLogger.debug(PetLogger.Category.REGEN, () -> "Config changed, rescheduled regen for " + count + " pets");
+    }
+
+    /**
+     * Schedule an unscheduled pet that is below the regen cap
+     * @return true if it was scheduled
+     */
+    private static boolean scheduleIfHurt(TameableEntity pet, int slot, ConfigSnapshot config, ServerWorld world, int currentTick) {
+        ConfigSnapshot.Profile profile = config.profileFor(pet);
+        if (pet.isDead() || pet.getHealth() >= pet.getMaxHealth() * profile.regenMaxHealthPercent) return false;
+
+        // A pet hurt recently still waits out the rest of its delay
+        long sinceDamage = world.getTime() - PetStateStore.lastDamageTime[slot];
+        int remainingDelay = (int) Math.max(0L, profile.regenDelayTicks - sinceDamage);
+        schedule(pet, currentTick + remainingDelay + REGEN_INTERVAL_TICKS - 1);
+        return true;
+    }
+
+    /**
+     * Apply one second of regen
+     * @return true if the pet should stay scheduled
+     */
+    private static boolean regenerate(TameableEntity pet) {
+        ConfigSnapshot config = Config.snapshot();
+        if (!pet.isTamed() || pet.isDead()) return false;
+
+        // Regen turned off or owner offline - try again next second
+        if (!config.isEnabled(ConfigSnapshot.NATURAL_REGEN) || !(pet.getOwner() instanceof PlayerEntity)) return true;
+
+        ConfigSnapshot.Profile profile = config.profileFor(pet);
+        float maxRegenHealth = pet.getMaxHealth() * profile.regenMaxHealthPercent;
+        if (pet.getHealth() >= pet.getMaxHealth() || pet.getHealth() >= maxRegenHealth) return false;
+
+        // Apply regeneration
+        float newHealth = Math.min(pet.getHealth() + profile.regenAmountPerSecond, maxRegenHealth);
+        pet.setHealth(newHealth);
+
+        PetLogger.debug(PetLogger.Category.REGEN, () -> "Pet " + pet.getUuid() + " regenerated to " + newHealth + "/" + pet.getMaxHealth() + " health");
+
+        // Reached the cap - drop it until it gets hurt again
+        return newHealth < maxRegenHealth;
+    }
+
+    private static class ScheduledRegen implements Comparable<ScheduledRegen> {
+        final TameableEntity pet;
+        final int dueTick;
+
+        ScheduledRegen(TameableEntity pet, int dueTick) {
+            this.pet = pet;
+            this.dueTick = dueTick;
+        }
+
+        @Override
+        public int compareTo(ScheduledRegen other) {
+            return Integer.compare(this.dueTick, other.dueTick);
+        }
+    }
+}
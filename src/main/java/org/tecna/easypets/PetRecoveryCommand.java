@@ -19,6 +19,7 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.storage.RegionFile;
 import net.minecraft.world.storage.StorageKey;
@@ -26,6 +27,8 @@ import org.tecna.easypets.config.Config;
 import org.tecna.easypets.translation.TranslationManager;
 import org.tecna.easypets.util.SaveUtil;
 import org.tecna.easypets.util.PerPlayerGlowManager;
+import org.tecna.easypets.util.PetLogger;
+import org.tecna.easypets.util.PetWhitelistManager;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -98,7 +101,11 @@ public class PetRecoveryCommand {
                             .then(net.minecraft.server.command.CommandManager.argument("playerName", net.minecraft.command.argument.EntityArgumentType.player())
                                     .executes(PetRecoveryCommand::executeDebugReset)))
                     .then(literal("version")
-                            .executes(PetRecoveryCommand::executeDebugVersion)));
+                            .executes(PetRecoveryCommand::executeDebugVersion))
+                    .then(literal("benchmark")
+                            .executes(context -> executeDebugBenchmark(context, PetUpkeepBenchmark.DEFAULT_MOB_COUNT))
+                            .then(net.minecraft.server.command.CommandManager.argument("mobs", com.mojang.brigadier.arguments.IntegerArgumentType.integer(1, 100_000))
+                                    .executes(context -> executeDebugBenchmark(context, com.mojang.brigadier.arguments.IntegerArgumentType.getInteger(context, "mobs"))))));
         });
     }
 
@@ -173,9 +180,7 @@ public class PetRecoveryCommand {
             return null; // UNDEFINED - fall back to vanilla
 
         } catch (Exception e) {
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] LuckPerms not available: " + e.getMessage());
-            }
+            PetLogger.debug(PetLogger.Category.GENERAL, () -> "LuckPerms not available: " + e.getMessage());
             return null;
         }
     }
@@ -213,6 +218,10 @@ public class PetRecoveryCommand {
 
         source.sendMessage(Text.empty());
         source.sendMessage(formatted("§7", "easypets.petstats.total", "§e" + totalChunkLoadingPets, "§e" + totalPlayersWithPets));
+
+        int[] tierCounts = PetStateStore.getTierCounts();
+        source.sendMessage(formatted("§7", "easypets.petstats.upkeep_tiers",
+                "§e" + tierCounts[PetUpkeep.TIER_FULL], "§e" + tierCounts[PetUpkeep.TIER_REDUCED], "§e" + tierCounts[PetUpkeep.TIER_SUSPENDED]));
         source.sendMessage(formatted("§7", "easypets.petstats.usage_hint"));
     }
 
@@ -407,6 +416,17 @@ public class PetRecoveryCommand {
 
         source.sendMessage(Text.literal("§e=== " + TranslationManager.getInstance().translate("easypets.debug.tracked_pets_title") + " ==="));
         source.sendMessage(formatted("§7", "easypets.debug.total_tracked", "§f" + totalTracked));
+        source.sendMessage(formatted("§7", "easypets.debug.avoided_moves", "§f" + PetChunkTickets.getAvoidedTicketMoves()));
+        source.sendMessage(formatted("§7", "easypets.debug.recovery_chunks", "§f" + PetRecoveryTickets.getPendingChunkCount()));
+        long cacheHits = FollowPathCache.getHitCount();
+        long cacheLookups = cacheHits + FollowPathCache.getMissCount();
+        String hitRate = cacheLookups > 0 ? String.format("%.1f%%", cacheHits * 100.0 / cacheLookups) : "-";
+        source.sendMessage(formatted("§7", "easypets.debug.follow_path_cache", "§f" + cacheHits, "§f" + FollowPathCache.getMissCount(), "§f" + hitRate));
+        source.sendMessage(formatted("§7", "easypets.debug.follow_path_invalidated", "§f" + FollowPathCache.getInvalidatedCount()));
+        source.sendMessage(formatted("§7", "easypets.debug.follow_queue", "§f" + FollowPathPlanner.getDeferredSearchCount(), "§f" + FollowPathPlanner.getQueuedRequestCount()));
+        source.sendMessage(formatted("§7", "easypets.debug.follow_teleports", "§f" + FollowPathPlanner.getTeleportsInsteadOfSearchCount()));
+        source.sendMessage(formatted("§7", "easypets.debug.pruned_whitelist_entries", "§f" + PetWhitelistManager.getInstance().getPrunedEntryCount()));
+        source.sendMessage(formatted("§7", "easypets.debug.dropped_log_messages", "§f" + PetLogger.getDroppedMessageCount()));
         source.sendMessage(formatted("§7", "easypets.debug.tracking_note"));
         source.sendMessage(formatted("§7", "easypets.debug.tickets_note"));
 
@@ -438,6 +458,17 @@ public class PetRecoveryCommand {
         return 1;
     }
 
+    private static int executeDebugBenchmark(CommandContext<ServerCommandSource> context, int mobCount) {
+        ServerCommandSource source = context.getSource();
+
+        if (!PetUpkeepBenchmark.start(source, source.getWorld(), BlockPos.ofFloored(source.getPosition()), mobCount)) {
+            source.sendError(formatted("§c", "easypets.debug.benchmark_running"));
+            return 0;
+        }
+        source.sendMessage(formatted("§7", "easypets.debug.benchmark_started", "§f" + mobCount));
+        return 1;
+    }
+
     private static int executeDebugVersion(CommandContext<ServerCommandSource> context) {
         ServerCommandSource source = context.getSource();
 
@@ -592,28 +623,19 @@ public class PetRecoveryCommand {
 
                         if (saveResult) {
                             player.sendMessage(formatted("§a", "easypets.recovery.save_complete"));
-                            if (config.isDebugLoggingEnabled()) {
-                                System.out.println("[EasyPets] World save completed successfully for " + operation);
-                            }
+                            PetLogger.debug(PetLogger.Category.SCAN, () -> "World save completed successfully for " + operation);
                             // Give save operation time to complete fully
                             //Thread.sleep(2000);
                         } else {
                             player.sendMessage(formatted("§c", "easypets.recovery.save_failed"));
-                            if (config.isDebugLoggingEnabled()) {
-                                System.out.println("[EasyPets] Save operation failed for player: " + player.getGameProfile().name());
-                            }
+                            PetLogger.debug(PetLogger.Category.SCAN, () -> "Save operation failed for player: " + player.getGameProfile().name());
                         }
                     } catch (Exception e) {
                         player.sendMessage(formatted("§c", "easypets.recovery.save_error"));
-                        if (config.isDebugLoggingEnabled()) {
-                            System.out.println("[EasyPets] Save operation exception: " + e.getMessage());
-                            e.printStackTrace();
-                        }
+                        PetLogger.debug(PetLogger.Category.SCAN, () -> "Save operation exception: " + e.getMessage(), e);
                     }
                 } else {
-                    if (config.isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] Skipping world save for " + operation + " (disabled in config)");
-                    }
+                    PetLogger.debug(PetLogger.Category.SCAN, () -> "Skipping world save for " + operation + " (disabled in config)");
                 }
 
                 if (locateOnly) {
@@ -658,14 +680,14 @@ public class PetRecoveryCommand {
                 Set<UUID> loadedPetUUIDs = new HashSet<>();
                 if (locateOnly) {
                     int updatedCount = updateLoadedPetPositions(player, standingPets, sittingPets, roamingPets, independentPets, loadedPetUUIDs, foundPetUUIDs);
-                    if (updatedCount > 0 && config.isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] Updated positions for " + updatedCount + " loaded pets");
+                    if (updatedCount > 0) {
+                        PetLogger.debug(PetLogger.Category.SCAN, () -> "Updated positions for " + updatedCount + " loaded pets");
                     }
                     
                     // Add any loaded pets that weren't found in the file scan
                     int addedCount = addMissingLoadedPets(player, standingPets, sittingPets, roamingPets, independentPets, foundPetUUIDs, loadedPetUUIDs);
-                    if (addedCount > 0 && config.isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] Added " + addedCount + " loaded pets that weren't in file scan");
+                    if (addedCount > 0) {
+                        PetLogger.debug(PetLogger.Category.SCAN, () -> "Added " + addedCount + " loaded pets that weren't in file scan");
                     }
                 }
 
@@ -683,18 +705,12 @@ public class PetRecoveryCommand {
             } catch (Exception e) {
                 player.sendMessage(Text.empty(), true);
                 player.sendMessage(formatted("§c", "easypets.recovery.error", e.getMessage()));
-                Config config = Config.getInstance();
-                if (config.isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Exception in recoverPlayerPets: " + e.getMessage());
-                    e.printStackTrace();
-                }
+                PetLogger.debug(PetLogger.Category.SCAN, () -> "Exception in recoverPlayerPets: " + e.getMessage(), e);
             } finally {
                 synchronized (playersCurrentlyScanning) {
                     playersCurrentlyScanning.remove(playerUUID);
                 }
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Removed player " + player.getGameProfile().name() + " from scanning set");
-                }
+                PetLogger.debug(PetLogger.Category.SCAN, () -> "Removed player " + player.getGameProfile().name() + " from scanning set");
             }
         });
     }
@@ -1023,7 +1039,7 @@ public class PetRecoveryCommand {
 
     private static void loadPetChunks(ServerPlayerEntity player, List<PetInfo> standingPets,
                                       List<PetInfo> sittingPets, List<PetInfo> roamingPets, List<PetInfo> independentPets) {
-        Set<ChunkPos> chunksLoaded = new HashSet<>();
+        Map<ServerWorld, Map<ChunkPos, List<UUID>>> petsByChunk = new HashMap<>();
         int petsToRecover = 0;
         int restrictedPets = 0;
 
@@ -1033,20 +1049,19 @@ public class PetRecoveryCommand {
                 continue;
             }
 
-            ChunkPos chunkPos = pet.chunkPos;
-            if (!chunksLoaded.contains(chunkPos)) {
-                pet.world.getChunkManager().addTicket(
-                        PetChunkTickets.PET_TICKET_TYPE,
-                        chunkPos,
-                        3
-                );
-                chunksLoaded.add(chunkPos);
-
-                scheduleChunkCleanup(pet.world, chunkPos, 1200);
-            }
+            petsByChunk.computeIfAbsent(pet.world, w -> new HashMap<>())
+                    .computeIfAbsent(pet.chunkPos, c -> new ArrayList<>())
+                    .add(pet.uuid);
             petsToRecover++;
         }
 
+        // Tickets are held only until the recovered pets arrive - see PetRecoveryTickets
+        if (!petsByChunk.isEmpty()) {
+            player.getEntityWorld().getServer().execute(() ->
+                    petsByChunk.forEach((world, chunks) ->
+                            chunks.forEach((chunkPos, petUUIDs) -> PetRecoveryTickets.track(world, chunkPos, petUUIDs))));
+        }
+
         Text message;
 
         if (petsToRecover > 0) {
@@ -1422,29 +1437,6 @@ public class PetRecoveryCommand {
         return playerUUID.equals(ownerUUID);
     }
 
-    private static void scheduleChunkCleanup(ServerWorld world, ChunkPos chunkPos, int delayTicks) {
-        Config config = Config.getInstance();
-
-        world.getServer().execute(() -> {
-            new Thread(() -> {
-                try {
-                    int actualDelay = Math.max(delayTicks, 1200);
-                    Thread.sleep(actualDelay * 50L);
-
-                    world.getServer().execute(() -> {
-                        world.getChunkManager().removeTicket(
-                                PetChunkTickets.PET_TICKET_TYPE,
-                                chunkPos,
-                                config.getMaxChunkDistance()
-                        );
-                    });
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-            }).start();
-        });
-    }
-
     private static boolean isIndependentPet(TameableEntity pet) {
         if (!IndyPetsHelper.isIndyPetsLoaded()) {
             return false;
@@ -1866,10 +1858,7 @@ public class PetRecoveryCommand {
                         }
                     }
                 } catch (Exception e) {
-                    if (Config.getInstance().isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] Error updating pet states: " + e.getMessage());
-                        e.printStackTrace();
-                    }
+                    PetLogger.debug(PetLogger.Category.SCAN, () -> "Error updating pet states: " + e.getMessage(), e);
                     cleanup();
                 }
             });
@@ -0,0 +1,184 @@
+package org.tecna.easypets;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.util.PetLogger;
+
+import java.util.*;
+
+/**
+ * Keeps chunks loaded by /petrecovery only until the recovered pets have arrived.
+ * Each chunk's ticket is renewed while at least one of its pets is still on the way,
+ * and released as soon as every pet has left the chunk or reached its owner.
+ * The old fixed timeout remains as a ceiling.
+ *
+ * All state is only touched on the server thread.
+ */
+public class PetRecoveryTickets {
+
+    private static final int RECOVERY_TICKET_RADIUS = 3;
+    private static final int MAX_HOLD_TICKS = 1200; // Ceiling - same as the old fixed cleanup delay
+    private static final int CHECK_INTERVAL_TICKS = 20;
+
+    private static final List<PendingChunk> pendingChunks = new ArrayList<>();
+    private static final Map<UUID, PendingChunk> chunksByPet = new HashMap<>();
+
+    public static void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(PetRecoveryTickets::onServerTick);
+
+        // A recovered pet loading in is the first sign it can start teleporting
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            if (chunksByPet.isEmpty() || !(entity instanceof TameableEntity pet)) return;
+
+            PendingChunk chunk = chunksByPet.get(pet.getUuid());
+            if (chunk != null && chunk.world == world) {
+                chunk.seenPets.add(pet.getUuid());
+                if (hasArrived(pet, chunk)) {
+                    markArrived(pet.getUuid());
+                }
+            }
+        });
+
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            pendingChunks.clear();
+            chunksByPet.clear();
+        });
+    }
+
+    /**
+     * Load a chunk for the given recovered pets. Must be called on the server thread.
+     */
+    public static void track(ServerWorld world, ChunkPos chunkPos, Collection<UUID> petUUIDs) {
+        PendingChunk chunk = findChunk(world, chunkPos);
+        if (chunk == null) {
+            chunk = new PendingChunk(world, chunkPos, world.getServer().getTicks());
+            pendingChunks.add(chunk);
+        } else {
+            // Running recovery again restarts the ceiling for this chunk
+            chunk.startTick = world.getServer().getTicks();
+        }
+
+        for (UUID petUUID : petUUIDs) {
+            PendingChunk previous = chunksByPet.put(petUUID, chunk);
+            if (previous != null && previous != chunk) {
+                previous.pendingPets.remove(petUUID);
+            }
+            chunk.pendingPets.add(petUUID);
+        }
+
+        world.getChunkManager().addTicket(PetChunkTickets.PET_RECOVERY_TICKET_TYPE, chunkPos, RECOVERY_TICKET_RADIUS);
+    }
+
+    /**
+     * Called when a pet has teleported to its owner, not when vanilla found no spot to teleport to
+     */
+    public static void onPetTeleported(TameableEntity pet) {
+        if (chunksByPet.isEmpty()) return;
+        markArrived(pet.getUuid());
+    }
+
+    public static int getPendingChunkCount() {
+        return pendingChunks.size();
+    }
+
+    private static void markArrived(UUID petUUID) {
+        PendingChunk chunk = chunksByPet.remove(petUUID);
+        if (chunk != null) {
+            chunk.pendingPets.remove(petUUID);
+        }
+    }
+
+    private static void onServerTick(MinecraftServer server) {
+        if (pendingChunks.isEmpty() || server.getTicks() % CHECK_INTERVAL_TICKS != 0) return;
+
+        Iterator<PendingChunk> iterator = pendingChunks.iterator();
+        while (iterator.hasNext()) {
+            PendingChunk chunk = iterator.next();
+            updateArrivals(chunk);
+
+            boolean expired = server.getTicks() - chunk.startTick >= MAX_HOLD_TICKS;
+            if (chunk.pendingPets.isEmpty() || expired) {
+                release(chunk);
+                iterator.remove();
+
+                PetLogger.debug(PetLogger.Category.TICKETS, () -> "Released recovery ticket at " + chunk.chunkPos + " after " + (server.getTicks() - chunk.startTick) + " ticks" + (expired ? " (timed out)" : ""));
+            } else {
+                // Renew before the ticket expires
+                chunk.world.getChunkManager().addTicket(PetChunkTickets.PET_RECOVERY_TICKET_TYPE, chunk.chunkPos, RECOVERY_TICKET_RADIUS);
+            }
+        }
+    }
+
+    private static void updateArrivals(PendingChunk chunk) {
+        Iterator<UUID> iterator = chunk.pendingPets.iterator();
+        while (iterator.hasNext()) {
+            UUID petUUID = iterator.next();
+            Entity entity = chunk.world.getEntity(petUUID);
+
+            boolean done;
+            if (entity == null) {
+                // Loaded once and now gone: it teleported to another dimension or was unloaded elsewhere
+                done = chunk.seenPets.contains(petUUID);
+            } else if (entity.isRemoved() || !(entity instanceof TameableEntity pet)) {
+                done = true;
+            } else {
+                chunk.seenPets.add(petUUID);
+                done = hasArrived(pet, chunk);
+            }
+
+            if (done) {
+                iterator.remove();
+                chunksByPet.remove(petUUID);
+            }
+        }
+    }
+
+    private static boolean hasArrived(TameableEntity pet, PendingChunk chunk) {
+        if (!pet.getChunkPos().equals(chunk.chunkPos)) {
+            return true;
+        }
+
+        LivingEntity owner = pet.getOwner();
+        return owner != null && owner.getEntityWorld() == pet.getEntityWorld()
+                && pet.squaredDistanceTo(owner) < Config.snapshot().profileFor(pet).teleportDistanceSquared;
+    }
+
+    private static void release(PendingChunk chunk) {
+        for (UUID petUUID : chunk.pendingPets) {
+            chunksByPet.remove(petUUID);
+        }
+        chunk.pendingPets.clear();
+        chunk.world.getChunkManager().removeTicket(PetChunkTickets.PET_RECOVERY_TICKET_TYPE, chunk.chunkPos, RECOVERY_TICKET_RADIUS);
+    }
+
+    private static PendingChunk findChunk(ServerWorld world, ChunkPos chunkPos) {
+        for (PendingChunk chunk : pendingChunks) {
+            if (chunk.world == world && chunk.chunkPos.equals(chunkPos)) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    private static class PendingChunk {
+        final ServerWorld world;
+        final ChunkPos chunkPos;
+        final Set<UUID> pendingPets = new HashSet<>();
+        final Set<UUID> seenPets = new HashSet<>();
+        int startTick;
+
+        PendingChunk(ServerWorld world, ChunkPos chunkPos, int startTick) {
+            this.world = world;
+            this.chunkPos = chunkPos;
+            this.startTick = startTick;
+        }
+    }
+}
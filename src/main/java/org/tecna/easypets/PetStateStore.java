@@ -0,0 +1,121 @@
+package org.tecna.easypets;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Side table holding per-pet upkeep state in primitive arrays.
+ * A slot is only allocated once an entity ticks as a tamed pet, so wild mobs carry no
+ * EasyPets state at all. Slots are keyed by entity id and recycled when the entity unloads.
+ *
+ * Server thread only.
+ */
+public class PetStateStore {
+
+    public static final int NO_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Int2IntOpenHashMap slotsByEntityId = new Int2IntOpenHashMap();
+    static {
+        slotsByEntityId.defaultReturnValue(NO_SLOT);
+    }
+
+    private static int[] freeSlots = new int[INITIAL_CAPACITY];
+    private static int freeCount = 0;
+    private static int nextSlot = 0;
+
+    // Upkeep level of detail
+    static byte[] upkeepTier = new byte[INITIAL_CAPACITY];
+
+    // Natural regeneration - server tick of the pet's next scheduled regen
+    static int[] regenDueTick = new int[INITIAL_CAPACITY];
+    // Game times, which keep advancing while the pet is unloaded
+    static long[] lastDamageTime = new long[INITIAL_CAPACITY];
+    static long[] savedUpdateTime = new long[INITIAL_CAPACITY]; // From NBT, consumed when the pet loads
+
+    // Follow pathfinding - whether the pet's last follow path was its own or a cached one, and if it got stuck on it
+    static byte[] followMode = new byte[INITIAL_CAPACITY];
+    static int[] followRequestTick = new int[INITIAL_CAPACITY]; // When the pet's queued path search was requested
+
+    public static void initialize() {
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> release(entity.getId()));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> clear());
+    }
+
+    /**
+     * Get the slot for a pet, allocating a fresh one the first time it is seen
+     */
+    static int getOrCreate(Entity entity) {
+        int entityId = entity.getId();
+        int slot = slotsByEntityId.get(entityId);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+
+        slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot++;
+        if (slot >= upkeepTier.length) {
+            grow(upkeepTier.length * 2);
+        }
+
+        upkeepTier[slot] = PetUpkeep.TIER_UNKNOWN;
+        regenDueTick[slot] = PetNaturalRegen.NOT_SCHEDULED;
+        lastDamageTime[slot] = 0L;
+        savedUpdateTime[slot] = PetNaturalRegen.NO_SAVED_TIME;
+        followMode[slot] = FollowPathPlanner.FOLLOWING_OWN_PATH;
+        followRequestTick[slot] = FollowPathPlanner.NOT_QUEUED;
+
+        slotsByEntityId.put(entityId, slot);
+        return slot;
+    }
+
+    /**
+     * Get the slot for a pet without allocating one
+     */
+    static int find(Entity entity) {
+        return slotsByEntityId.get(entity.getId());
+    }
+
+    static void release(int entityId) {
+        int slot = slotsByEntityId.remove(entityId);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Number of tracked pets in each upkeep tier, indexed by tier
+     */
+    public static int[] getTierCounts() {
+        int[] counts = new int[PetUpkeep.TIER_COUNT];
+        for (int slot : slotsByEntityId.values()) {
+            if (upkeepTier[slot] >= 0) {
+                counts[upkeepTier[slot]]++;
+            }
+        }
+        return counts;
+    }
+
+    private static void grow(int capacity) {
+        upkeepTier = Arrays.copyOf(upkeepTier, capacity);
+        regenDueTick = Arrays.copyOf(regenDueTick, capacity);
+        lastDamageTime = Arrays.copyOf(lastDamageTime, capacity);
+        savedUpdateTime = Arrays.copyOf(savedUpdateTime, capacity);
+        followMode = Arrays.copyOf(followMode, capacity);
+        followRequestTick = Arrays.copyOf(followRequestTick, capacity);
+    }
+
+    private static void clear() {
+        slotsByEntityId.clear();
+        freeCount = 0;
+        nextSlot = 0;
+    }
+}
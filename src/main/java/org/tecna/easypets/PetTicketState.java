@@ -0,0 +1,99 @@
+package org.tecna.easypets;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Tracks where a pet's chunk ticket is centered.
+ * The center only follows the pet into a new chunk once the pet is far enough past the border
+ * or has stayed in the new chunk long enough, so pets pacing along a border don't drag
+ * their whole ring of loaded chunks back and forth.
+ */
+public class PetTicketState {
+    // Pets that moved less than this since the last update (1 second) count as idle
+    private static final double IDLE_MOVEMENT_SQUARED = 1.0;
+
+    private final RegistryKey<World> world;
+    private ChunkPos center;
+    private ChunkPos currentChunk;
+    private ChunkPos candidate;
+    private int candidateSinceTick;
+    private double lastX, lastZ;
+    private boolean moving = true; // Until we know better, give new pets the full ticket
+
+    public PetTicketState(RegistryKey<World> world, ChunkPos center) {
+        this(world, center, center.getCenterX(), center.getCenterZ());
+    }
+
+    public PetTicketState(RegistryKey<World> world, ChunkPos center, double x, double z) {
+        this.world = world;
+        this.center = center;
+        this.currentChunk = center;
+        this.lastX = x;
+        this.lastZ = z;
+    }
+
+    public RegistryKey<World> getWorld() {
+        return world;
+    }
+
+    public ChunkPos getCenter() {
+        return center;
+    }
+
+    public ChunkPos getCurrentChunk() {
+        return currentChunk;
+    }
+
+    /**
+     * Whether the pet moved noticeably since the previous update
+     */
+    public boolean isMoving() {
+        return moving;
+    }
+
+    /**
+     * Update the ticket center from the pet's latest position
+     * @param hysteresisBlocks how far past the center chunk's border the pet must be before the center moves
+     * @param hysteresisTicks how long the pet must stay in another chunk before the center moves
+     * @return true if the ticket center moved
+     */
+    public boolean update(double x, double z, ChunkPos chunkPos, int currentTick, int hysteresisBlocks, int hysteresisTicks) {
+        this.currentChunk = chunkPos;
+
+        double movedX = x - lastX;
+        double movedZ = z - lastZ;
+        this.moving = movedX * movedX + movedZ * movedZ >= IDLE_MOVEMENT_SQUARED;
+        this.lastX = x;
+        this.lastZ = z;
+
+        if (chunkPos.equals(center)) {
+            if (candidate != null) {
+                // Pet came back before the center moved - that's a ticket move we didn't make. Every
+                // ticket for a pet sits on its center, so none was placed on the chunk it left.
+                candidate = null;
+                PetChunkTickets.recordAvoidedMove();
+            }
+            return false;
+        }
+
+        if (!chunkPos.equals(candidate)) {
+            candidate = chunkPos;
+            candidateSinceTick = currentTick;
+        }
+
+        if (getDistanceOutsideCenter(x, z) >= hysteresisBlocks || currentTick - candidateSinceTick >= hysteresisTicks) {
+            center = chunkPos;
+            candidate = null;
+            return true;
+        }
+        return false;
+    }
+
+    private double getDistanceOutsideCenter(double x, double z) {
+        double outsideX = Math.max(0, Math.max(center.getStartX() - x, x - (center.getEndX() + 1)));
+        double outsideZ = Math.max(0, Math.max(center.getStartZ() - z, z - (center.getEndZ() + 1)));
+        return Math.max(outsideX, outsideZ);
+    }
+}
@@ -0,0 +1,92 @@
+package org.tecna.easypets;
+
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.passive.TameableEntity;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
+
+/**
+ * Single entry point for everything EasyPets does to a pet each tick.
+ * Only TameableEntity dispatches here, so other mobs never pay for pet features.
+ * Natural regeneration runs on its own schedule in PetNaturalRegen; upkeep only checks once per
+ * second that hurt pets are on it.
+ *
+ * Upkeep runs at a level of detail based on where the pet is: every tick near its owner,
+ * every few ticks at mid range, and suspended for sitting pets and pets far from their owner.
+ */
+public class PetUpkeep {
+
+    public static final byte TIER_UNKNOWN = -1;
+    public static final byte TIER_FULL = 0;
+    public static final byte TIER_REDUCED = 1;
+    public static final byte TIER_SUSPENDED = 2;
+    public static final int TIER_COUNT = 3;
+
+    private static final int TIER_CHECK_INTERVAL = 20; // Re-evaluate each pet's tier once per second
+
+    public static void initialize() {
+        PetStateStore.initialize();
+        PetNaturalRegen.initialize();
+        FollowPathPlanner.initialize();
+        PetUpkeepBenchmark.initialize();
+
+        ServerLivingEntityEvents.ALLOW_DAMAGE.register((entity, source, amount) -> {
+            if (entity instanceof TameableEntity pet && pet.isTamed()) {
+                PetNaturalRegen.onDamaged(pet);
+            }
+            return true; // Only observing - never cancel damage
+        });
+    }
+
+    /**
+     * Called at the start of every TameableEntity tick
+     */
+    public static void tick(TameableEntity pet) {
+        if (pet.getEntityWorld().isClient() || !pet.isTamed()) return;
+
+        ConfigSnapshot config = Config.snapshot();
+        int slot = PetStateStore.getOrCreate(pet);
+
+        // Spread pets across ticks so reduced-rate pets don't all update together
+        int phase = pet.age + pet.getId();
+
+        byte tier = PetStateStore.upkeepTier[slot];
+        boolean tierChanged = false;
+        if (tier == TIER_UNKNOWN || phase % TIER_CHECK_INTERVAL == 0) {
+            byte newTier = getTier(pet, config);
+            tierChanged = newTier != tier;
+            tier = newTier;
+            PetStateStore.upkeepTier[slot] = tier;
+
+            PetNaturalRegen.checkScheduled(pet, slot, config);
+        }
+
+        switch (tier) {
+            case TIER_FULL -> PetDynamicRunning.tick(pet, config);
+            case TIER_REDUCED -> {
+                if (tierChanged || phase % config.upkeepReducedInterval == 0) {
+                    PetDynamicRunning.tick(pet, config);
+                }
+            }
+            default -> {
+                if (tierChanged) {
+                    // Don't leave a catch-up boost on a pet we stop updating
+                    PetDynamicRunning.clear(pet);
+                }
+            }
+        }
+    }
+
+    private static byte getTier(TameableEntity pet, ConfigSnapshot config) {
+        if (pet.isSitting()) return TIER_SUSPENDED;
+
+        LivingEntity owner = pet.getOwner();
+        if (owner == null || owner.getEntityWorld() != pet.getEntityWorld()) return TIER_SUSPENDED;
+
+        double distanceSquared = pet.squaredDistanceTo(owner);
+        if (distanceSquared <= config.upkeepFullRangeSquared) return TIER_FULL;
+        if (distanceSquared <= config.upkeepReducedRangeSquared) return TIER_REDUCED;
+        return TIER_SUSPENDED;
+    }
+}
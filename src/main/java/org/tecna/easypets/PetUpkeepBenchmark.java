@@ -0,0 +1,108 @@
+package org.tecna.easypets;
+
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.SpawnReason;
+import net.minecraft.entity.passive.PigEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.tecna.easypets.translation.TranslationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /petdebug benchmark: spawns untamed mobs around the caller, measures the average server tick
+ * over a fixed number of ticks and removes them again. The mobs have no AI or gravity, so what
+ * remains is mostly the per-mob tick entry that mixins hook into. Run it with the same count on
+ * two builds to see what a hook on every mob costs.
+ *
+ * Server thread only.
+ */
+public class PetUpkeepBenchmark {
+
+    public static final int DEFAULT_MOB_COUNT = 50_000;
+    private static final int WARMUP_TICKS = 100; // Let spawning and chunk tracking settle first
+    private static final int MEASURED_TICKS = 400;
+
+    private static Run run = null;
+
+    public static void initialize() {
+        ServerTickEvents.START_SERVER_TICK.register(PetUpkeepBenchmark::onStartTick);
+        ServerTickEvents.END_SERVER_TICK.register(PetUpkeepBenchmark::onEndTick);
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> finish());
+    }
+
+    /**
+     * Spawn the mobs in a square around the given position and start measuring
+     * @return false if a benchmark is already running
+     */
+    public static boolean start(ServerCommandSource source, ServerWorld world, BlockPos center, int count) {
+        if (run != null) return false;
+
+        List<PigEntity> mobs = new ArrayList<>(count);
+        int side = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            PigEntity mob = EntityType.PIG.create(world, SpawnReason.COMMAND);
+            if (mob == null) break;
+
+            mob.refreshPositionAndAngles(center.getX() - side / 2 + i % side + 0.5, center.getY(),
+                    center.getZ() - side / 2 + i / side + 0.5, 0.0f, 0.0f);
+            mob.setAiDisabled(true);
+            mob.setNoGravity(true);
+            mob.setSilent(true);
+            world.spawnEntity(mob);
+            mobs.add(mob);
+        }
+
+        run = new Run(source, mobs);
+        return true;
+    }
+
+    private static void onStartTick(MinecraftServer server) {
+        if (run != null) {
+            run.tickStart = System.nanoTime();
+        }
+    }
+
+    private static void onEndTick(MinecraftServer server) {
+        if (run == null) return;
+
+        run.ticks++;
+        if (run.ticks <= WARMUP_TICKS) return;
+
+        // START to END_SERVER_TICK spans the whole server tick, mobs included
+        run.measuredNanos += System.nanoTime() - run.tickStart;
+        if (run.ticks < WARMUP_TICKS + MEASURED_TICKS) return;
+
+        double averageMs = run.measuredNanos / 1_000_000.0 / MEASURED_TICKS;
+        run.source.sendMessage(TranslationManager.getInstance().text("§7", "easypets.debug.benchmark_result",
+                "§f" + run.mobs.size(), "§f" + String.format("%.3f", averageMs), "§f" + MEASURED_TICKS));
+        finish();
+    }
+
+    private static void finish() {
+        if (run == null) return;
+
+        for (PigEntity mob : run.mobs) {
+            mob.discard();
+        }
+        run = null;
+    }
+
+    private static class Run {
+        final ServerCommandSource source;
+        final List<PigEntity> mobs;
+        int ticks = 0;
+        long tickStart;
+        long measuredNanos = 0;
+
+        Run(ServerCommandSource source, List<PigEntity> mobs) {
+            this.source = source;
+            this.mobs = mobs;
+        }
+    }
+}
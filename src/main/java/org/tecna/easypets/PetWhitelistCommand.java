@@ -1,6 +1,9 @@
 package org.tecna.easypets;
 
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.argument.EntityArgumentType;
@@ -9,11 +12,13 @@ import net.minecraft.registry.Registries;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
+import net.minecraft.text.Texts;
 import net.minecraft.util.Identifier;
 import org.tecna.easypets.translation.TranslationManager;
 import org.tecna.easypets.util.PetWhitelistManager;
 
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -36,6 +41,10 @@ public class PetWhitelistCommand {
 
     private static final Pattern UUID_PATTERN = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
     private static final Pattern TYPE_SELECTOR_PATTERN = Pattern.compile("type=([a-z0-9_:\\-]+)");
+    private static final Pattern GROUP_NAME_PATTERN = Pattern.compile("^[a-z0-9_\\-]{1,32}$");
+
+    private static final SuggestionProvider<ServerCommandSource> GROUP_SUGGESTIONS = (context, builder) ->
+            CommandSource.suggestMatching(PetWhitelistManager.getInstance().getGroups().stream().map(PetWhitelistManager.WhitelistGroup::name), builder);
 
     private static String getArgumentInput(CommandContext<ServerCommandSource> context, String argumentName) {
         String input = context.getInput();
@@ -75,20 +84,71 @@ public class PetWhitelistCommand {
     }
 
 
+    /**
+     * Run a command once the player's own whitelist is loaded. It normally is, having been read when
+     * they joined; otherwise the command finishes on the server thread once the storage thread has
+     * read it, instead of the tick waiting on the disk.
+     */
+    static int afterWhitelistLoaded(CommandContext<ServerCommandSource> context, Command<ServerCommandSource> command) throws CommandSyntaxException {
+        ServerCommandSource source = context.getSource();
+        PetWhitelistManager manager = PetWhitelistManager.getInstance();
+        if (!(source.getEntity() instanceof ServerPlayerEntity player) || manager.isLoaded(player.getUuid())) {
+            return command.run(context);
+        }
+
+        manager.whenLoaded(player.getUuid()).thenRunAsync(() -> {
+            try {
+                command.run(context);
+            } catch (CommandSyntaxException e) {
+                source.sendError(Texts.toText(e.getRawMessage()));
+            }
+        }, source.getServer());
+        return 1;
+    }
+
     public static void register() {
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> {
             dispatcher.register(literal("petwhitelist")
                     .executes(PetWhitelistCommand::executeWhitelistHelp)
                     .then(literal("add")
                             .then(argument("entities", EntityArgumentType.entities())
-                                    .executes(PetWhitelistCommand::executeAddEntities)))
+                                    .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeAddEntities))))
                     .then(literal("remove")
                             .then(argument("entities", EntityArgumentType.entities())
-                                    .executes(PetWhitelistCommand::executeRemoveEntities)))
+                                    .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeRemoveEntities))))
                     .then(literal("list")
-                            .executes(PetWhitelistCommand::executeListWhitelist))
+                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeListWhitelist)))
                     .then(literal("clear")
-                            .executes(PetWhitelistCommand::executeClearWhitelist)));
+                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeClearWhitelist)))
+                    .then(literal("group")
+                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeListGroups))
+                            .then(literal("list")
+                                    .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeListGroups)))
+                            .then(literal("create")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeCreateGroup))))
+                            .then(literal("delete")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .suggests(GROUP_SUGGESTIONS)
+                                            .executes(PetWhitelistCommand::executeDeleteGroup)))
+                            .then(literal("join")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .suggests(GROUP_SUGGESTIONS)
+                                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeJoinGroup))))
+                            .then(literal("leave")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .suggests(GROUP_SUGGESTIONS)
+                                            .executes(context -> afterWhitelistLoaded(context, PetWhitelistCommand::executeLeaveGroup))))
+                            .then(literal("add")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .suggests(GROUP_SUGGESTIONS)
+                                            .then(argument("entities", EntityArgumentType.entities())
+                                                    .executes(context -> executeEditGroup(context, true)))))
+                            .then(literal("remove")
+                                    .then(argument("group", StringArgumentType.word())
+                                            .suggests(GROUP_SUGGESTIONS)
+                                            .then(argument("entities", EntityArgumentType.entities())
+                                                    .executes(context -> executeEditGroup(context, false)))))));
         });
     }
 
@@ -105,6 +165,7 @@ public class PetWhitelistCommand {
         source.sendMessage(formatted("§7", "easypets.petwhitelist.help.add"));
         source.sendMessage(formatted("§7", "easypets.petwhitelist.help.remove"));
         source.sendMessage(formatted("§7", "easypets.petwhitelist.help.list"));
+        source.sendMessage(formatted("§7", "easypets.petwhitelist.help.group"));
         source.sendMessage(Text.empty());
         source.sendMessage(formatted("§e", "easypets.petwhitelist.help.explanation"));
         source.sendMessage(formatted("§7", "easypets.petwhitelist.help.examples"));
@@ -316,6 +377,7 @@ public class PetWhitelistCommand {
         Set<UUID> whitelistedPlayers = PetWhitelistManager.getInstance().getWhitelistedPlayers(player.getUuid());
         Set<String> whitelistedEntities = PetWhitelistManager.getInstance().getWhitelistedEntityTypes(player.getUuid());
         Set<UUID> whitelistedEntityUUIDs = PetWhitelistManager.getInstance().getWhitelistedEntityUUIDs(player.getUuid());
+        Set<String> subscribedGroups = PetWhitelistManager.getInstance().getSubscribedGroups(player.getUuid());
 
         source.sendMessage(formatted("§a", "easypets.petwhitelist.list_title"));
         source.sendMessage(Text.empty());
@@ -354,7 +416,17 @@ public class PetWhitelistCommand {
                     .forEach(uuidString -> source.sendMessage(formatted("§f", "easypets.petwhitelist.list_entity_uuid", uuidString)));
         }
 
-        if (whitelistedPlayers.isEmpty() && whitelistedEntities.isEmpty() && whitelistedEntityUUIDs.isEmpty()) {
+        if (!subscribedGroups.isEmpty()) {
+            if (!whitelistedPlayers.isEmpty() || !whitelistedEntities.isEmpty() || !whitelistedEntityUUIDs.isEmpty()) {
+                source.sendMessage(Text.empty());
+            }
+            source.sendMessage(formatted("§6", "easypets.petwhitelist.list_groups", subscribedGroups.size()));
+            subscribedGroups.stream()
+                    .sorted()
+                    .forEach(groupName -> source.sendMessage(formatted("§f", "easypets.petwhitelist.list_group", groupName)));
+        }
+
+        if (whitelistedPlayers.isEmpty() && whitelistedEntities.isEmpty() && whitelistedEntityUUIDs.isEmpty() && subscribedGroups.isEmpty()) {
             source.sendMessage(formatted("§7", "easypets.petwhitelist.list_empty"));
         }
 
@@ -381,4 +453,196 @@ public class PetWhitelistCommand {
 
         return 1;
     }
+
+    private static int executeListGroups(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayerEntity player)) {
+            source.sendError(formatted("§c", "easypets.command.error.players_only"));
+            return 0;
+        }
+
+        Collection<PetWhitelistManager.WhitelistGroup> groups = PetWhitelistManager.getInstance().getGroups();
+        Set<String> subscribedGroups = PetWhitelistManager.getInstance().getSubscribedGroups(player.getUuid());
+
+        source.sendMessage(formatted("§a", "easypets.petwhitelist.group.list_title"));
+        if (groups.isEmpty()) {
+            source.sendMessage(formatted("§7", "easypets.petwhitelist.group.list_empty"));
+            return 1;
+        }
+
+        groups.stream()
+                .sorted(Comparator.comparing(PetWhitelistManager.WhitelistGroup::name))
+                .forEach(group -> {
+                    String key = subscribedGroups.contains(group.name())
+                            ? "easypets.petwhitelist.group.list_entry_joined"
+                            : "easypets.petwhitelist.group.list_entry";
+                    source.sendMessage(formatted("§f", key, group.name(), group.entries().size()));
+                });
+        source.sendMessage(formatted("§7", "easypets.petwhitelist.group.help"));
+
+        return 1;
+    }
+
+    private static int executeCreateGroup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayerEntity player)) {
+            source.sendError(formatted("§c", "easypets.command.error.players_only"));
+            return 0;
+        }
+
+        String groupName = StringArgumentType.getString(context, "group").toLowerCase();
+        if (!GROUP_NAME_PATTERN.matcher(groupName).matches()) {
+            source.sendError(formatted("§c", "easypets.petwhitelist.group.error.invalid_name", groupName));
+            return 0;
+        }
+
+        if (!PetWhitelistManager.getInstance().createGroup(groupName, player.getUuid())) {
+            source.sendError(formatted("§c", "easypets.petwhitelist.group.error.already_exists", groupName));
+            return 0;
+        }
+
+        // The creator's own pets follow the group too
+        PetWhitelistManager.getInstance().subscribeToGroup(player.getUuid(), groupName);
+        source.sendMessage(formatted("§a", "easypets.petwhitelist.group.created", groupName));
+
+        return 1;
+    }
+
+    private static int executeDeleteGroup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        PetWhitelistManager.WhitelistGroup group = getEditableGroup(context);
+        if (group == null) {
+            return 0;
+        }
+
+        PetWhitelistManager.getInstance().deleteGroup(group.name());
+        source.sendMessage(formatted("§a", "easypets.petwhitelist.group.deleted", group.name()));
+
+        return 1;
+    }
+
+    private static int executeJoinGroup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayerEntity player)) {
+            source.sendError(formatted("§c", "easypets.command.error.players_only"));
+            return 0;
+        }
+
+        String groupName = StringArgumentType.getString(context, "group").toLowerCase();
+        if (PetWhitelistManager.getInstance().getGroup(groupName) == null) {
+            source.sendError(formatted("§c", "easypets.petwhitelist.group.error.not_found", groupName));
+            return 0;
+        }
+
+        if (PetWhitelistManager.getInstance().subscribeToGroup(player.getUuid(), groupName)) {
+            source.sendMessage(formatted("§a", "easypets.petwhitelist.group.joined", groupName));
+        } else {
+            source.sendMessage(formatted("§e", "easypets.petwhitelist.group.already_joined", groupName));
+        }
+
+        return 1;
+    }
+
+    private static int executeLeaveGroup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayerEntity player)) {
+            source.sendError(formatted("§c", "easypets.command.error.players_only"));
+            return 0;
+        }
+
+        String groupName = StringArgumentType.getString(context, "group").toLowerCase();
+        if (PetWhitelistManager.getInstance().unsubscribeFromGroup(player.getUuid(), groupName)) {
+            source.sendMessage(formatted("§a", "easypets.petwhitelist.group.left", groupName));
+        } else {
+            source.sendMessage(formatted("§e", "easypets.petwhitelist.group.not_joined", groupName));
+        }
+
+        return 1;
+    }
+
+    private static int executeEditGroup(CommandContext<ServerCommandSource> context, boolean whitelisted) {
+        ServerCommandSource source = context.getSource();
+        PetWhitelistManager.WhitelistGroup group = getEditableGroup(context);
+        if (group == null) {
+            return 0;
+        }
+
+        PetWhitelistManager manager = PetWhitelistManager.getInstance();
+        String changedKey = whitelisted ? "easypets.petwhitelist.group.entry_added" : "easypets.petwhitelist.group.entry_removed";
+        String unchangedKey = whitelisted ? "easypets.petwhitelist.group.entry_already_in_group" : "easypets.petwhitelist.group.entry_not_in_group";
+
+        try {
+            Collection<? extends Entity> targetEntities = EntityArgumentType.getOptionalEntities(context, "entities");
+            Optional<String> typeSelector = extractEntityType(getArgumentInput(context, "entities"))
+                    .filter(type -> !type.startsWith("!") && !type.startsWith("#"));
+
+            if (typeSelector.isPresent()) {
+                String normalizedType = normalizeEntityTypeId(typeSelector.get());
+                Identifier identifier = Identifier.tryParse(normalizedType);
+                if (identifier == null || !Registries.ENTITY_TYPE.containsId(identifier)) {
+                    source.sendError(formatted("§c", "easypets.petwhitelist.error.invalid_entity_type", normalizedType));
+                    return 0;
+                }
+
+                boolean changed = manager.setGroupEntityType(group.name(), normalizedType, whitelisted);
+                source.sendMessage(formatted(changed ? "§a" : "§e", changed ? changedKey : unchangedKey, normalizedType, group.name()));
+                return 1;
+            }
+
+            if (targetEntities.isEmpty()) {
+                source.sendError(formatted("§c", "easypets.command.error.entity_not_found"));
+                return 0;
+            }
+
+            for (Entity targetEntity : targetEntities) {
+                boolean changed;
+                String displayName;
+                if (targetEntity instanceof ServerPlayerEntity targetPlayer) {
+                    changed = manager.setGroupPlayer(group.name(), targetPlayer.getUuid(), whitelisted);
+                    displayName = targetPlayer.getGameProfile().name();
+                } else {
+                    changed = manager.setGroupEntityUUID(group.name(), targetEntity.getUuid(), whitelisted);
+                    String entityType = Registries.ENTITY_TYPE.getId(targetEntity.getType()).toString();
+                    displayName = targetEntity.hasCustomName()
+                            ? targetEntity.getCustomName().getString() + " (" + entityType + ")"
+                            : entityType + " (" + targetEntity.getUuid().toString().substring(0, 8) + "...)";
+                }
+                source.sendMessage(formatted(changed ? "§a" : "§e", changed ? changedKey : unchangedKey, displayName, group.name()));
+            }
+        } catch (CommandSyntaxException e) {
+            source.sendError(formatted("§c", "easypets.command.error.entity_not_found"));
+        }
+
+        return 1;
+    }
+
+    /**
+     * The group named in the command, if the source may change it: its creator and operators can
+     */
+    private static PetWhitelistManager.WhitelistGroup getEditableGroup(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+
+        if (!(source.getEntity() instanceof ServerPlayerEntity player)) {
+            source.sendError(formatted("§c", "easypets.command.error.players_only"));
+            return null;
+        }
+
+        String groupName = StringArgumentType.getString(context, "group").toLowerCase();
+        PetWhitelistManager.WhitelistGroup group = PetWhitelistManager.getInstance().getGroup(groupName);
+        if (group == null) {
+            source.sendError(formatted("§c", "easypets.petwhitelist.group.error.not_found", groupName));
+            return null;
+        }
+
+        if (!player.getUuid().equals(group.creator()) && !source.hasPermissionLevel(2)) {
+            source.sendError(formatted("§c", "easypets.petwhitelist.group.error.not_creator", groupName));
+            return null;
+        }
+
+        return group;
+    }
 }
@@ -4,31 +4,55 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 import net.fabricmc.loader.api.FabricLoader;
+import org.tecna.easypets.util.PetLogger;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class Config {
     private static final String CONFIG_FILE_NAME = "easypets.json";
     private static Config INSTANCE;
+    private static volatile ConfigSnapshot SNAPSHOT;
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
     // Core functionality - only what we actually use
     public boolean enableChunkLoading = true;
     public double teleportDistance = 48; // Distance in blocks before pet tries to teleport (changed from 6.0 to match vanilla)
-    public int maxChunkDistance = 2; // Chunk loading radius
+    public int maxChunkDistance = 2; // Chunk loading radius for following pets that are moving
+    public int idleChunkDistance = 1; // Chunk loading radius for idle pets within teleport distance (1 = loaded, not ticking)
+    public int farBehindChunkDistance = 2; // Chunk loading radius for pets past teleport distance (2 = only the pet's chunk ticks)
+    public int ticketHysteresisBlocks = 4; // Blocks a pet must be past a chunk border before its ticket moves
+    public int ticketHysteresisSeconds = 5; // Or seconds it must stay in the new chunk
     public int navigationScanningRange = 64; // Maximum navigation range in blocks
+    public boolean enablePackPathfinding = true; // Pets of one owner share a leader's path instead of each searching their own
+    public boolean enableFollowPathCache = true; // Pets reuse recent follow paths to their owner instead of searching again
+    public int followPathNodeBudget = 2048; // Estimated path nodes follow searches may use per tick, the rest wait
+    public int teleportPathCostBudget = 512; // Pets whose follow path would cost more than this teleport to their owner instead
     public boolean enableDebugLogging = false;
+    public String debugLogCategories = "all"; // Comma separated: regen, tickets, scan, glow, whitelist, general
+
+    // Predictive chunk preloading for fast-travelling owners
+    public boolean enablePredictiveChunkLoading = false;
+    public int maxPredictedChunks = 4; // Hard cap on chunks preloaded ahead of each player
+
+    // Pet upkeep level of detail
+    public double upkeepFullRange = 24.0; // Pets this close to their owner get upkeep every tick
+    public double upkeepReducedRange = 64.0; // Pets this close get reduced-rate upkeep, further pets are suspended
+    public int upkeepReducedInterval = 4; // Ticks between upkeep runs for reduced-rate pets
 
     // Auto-recovery feature
     public boolean autoRecoverOnFirstJoin = true; // Automatically run pet recovery when joining world for first time
+    public int calmedEntityWhitelistMinutes = 60; // Minutes /calmpets keeps a calmed mob whitelisted, 0 = forever
 
     // Dynamic Pet Running Settings
     public boolean enableDynamicRunning = true;
     public double runningTargetDistance = 6.0; // Distance where pets start running faster
     public double maxRunningMultiplier = 1.6; // Maximum running speed boost
     public double playerMovementThreshold = 0.1; // Minimum player movement to trigger speed changes
+    public double runningMultiplierStep = 0.05; // Speed changes smaller than this don't touch the pet's attributes
 
     // Natural Regeneration Settings
     public boolean enableNaturalRegen = true;
@@ -46,6 +70,32 @@ public class Config {
     // Find pets glow duration
     public int glowDurationSeconds = 30; // Duration in seconds for pet glow effects
 
+    // Per-entity-type overrides keyed by entity type id, e.g. "minecraft:parrot"
+    public Map<String, PetProfile> petProfiles = new LinkedHashMap<>();
+
+    /**
+     * Settings one kind of pet uses instead of the global values.
+     * Anything left out (null) falls back to the global setting.
+     */
+    public static class PetProfile {
+        public Double teleportDistance;
+        public Integer navigationScanningRange;
+        public Double maxRunningMultiplier;
+        public Integer regenDelayTicks;
+        public Float regenAmountPerSecond;
+        public Float regenMaxHealthPercent;
+
+        private void validateAndFixValues() {
+            // Same limits as the global settings
+            if (teleportDistance != null) teleportDistance = Math.max(1.0, Math.min(200.0, teleportDistance));
+            if (navigationScanningRange != null) navigationScanningRange = Math.max(32, Math.min(1000, navigationScanningRange));
+            if (maxRunningMultiplier != null) maxRunningMultiplier = Math.max(1.0, Math.min(10.0, maxRunningMultiplier));
+            if (regenDelayTicks != null) regenDelayTicks = Math.max(20, Math.min(6000, regenDelayTicks));
+            if (regenAmountPerSecond != null) regenAmountPerSecond = Math.max(0.01f, Math.min(5.0f, regenAmountPerSecond));
+            if (regenMaxHealthPercent != null) regenMaxHealthPercent = Math.max(0.1f, Math.min(1.0f, regenMaxHealthPercent));
+        }
+    }
+
     private Config() {}
 
     public static Config getInstance() {
@@ -55,6 +105,18 @@ public class Config {
         return INSTANCE;
     }
 
+    /**
+     * Current immutable snapshot - use this on per-tick paths instead of getInstance()
+     */
+    public static ConfigSnapshot snapshot() {
+        ConfigSnapshot snapshot = SNAPSHOT;
+        if (snapshot == null) {
+            getInstance();
+            snapshot = SNAPSHOT;
+        }
+        return snapshot;
+    }
+
     private static Config loadConfig() {
         Path configPath = FabricLoader.getInstance().getConfigDir().resolve(CONFIG_FILE_NAME);
 
@@ -88,9 +150,42 @@ public class Config {
         if (maxChunkDistance < 1) maxChunkDistance = 1;
         if (maxChunkDistance > 10) maxChunkDistance = 10;
 
+        if (idleChunkDistance < 1) idleChunkDistance = 1;
+        if (idleChunkDistance > 10) idleChunkDistance = 10;
+        if (farBehindChunkDistance < 1) farBehindChunkDistance = 1;
+        if (farBehindChunkDistance > 10) farBehindChunkDistance = 10;
+
+        if (ticketHysteresisBlocks < 0) ticketHysteresisBlocks = 0;
+        if (ticketHysteresisBlocks > 15) ticketHysteresisBlocks = 15;
+
+        if (ticketHysteresisSeconds < 1) ticketHysteresisSeconds = 1;
+        if (ticketHysteresisSeconds > 60) ticketHysteresisSeconds = 60;
+
         if (navigationScanningRange < 32) navigationScanningRange = 32;
         if (navigationScanningRange > 1000) navigationScanningRange = 1000;
 
+        if (followPathNodeBudget < 256) followPathNodeBudget = 256;
+        if (followPathNodeBudget > 65536) followPathNodeBudget = 65536;
+
+        if (teleportPathCostBudget < 64) teleportPathCostBudget = 64;
+        if (teleportPathCostBudget > 16384) teleportPathCostBudget = 16384;
+
+        if (calmedEntityWhitelistMinutes < 0) calmedEntityWhitelistMinutes = 0;
+        if (calmedEntityWhitelistMinutes > 10080) calmedEntityWhitelistMinutes = 10080;
+
+        if (maxPredictedChunks < 1) maxPredictedChunks = 1;
+        if (maxPredictedChunks > 16) maxPredictedChunks = 16;
+
+        // Upkeep level of detail validation
+        if (upkeepFullRange < 4.0) upkeepFullRange = 4.0;
+        if (upkeepFullRange > 128.0) upkeepFullRange = 128.0;
+
+        if (upkeepReducedRange < upkeepFullRange) upkeepReducedRange = upkeepFullRange;
+        if (upkeepReducedRange > 256.0) upkeepReducedRange = 256.0;
+
+        if (upkeepReducedInterval < 2) upkeepReducedInterval = 2;
+        if (upkeepReducedInterval > 20) upkeepReducedInterval = 20;
+
         // Dynamic Pet Running validation
         if (runningTargetDistance < 1.0) runningTargetDistance = 1.0;
         if (runningTargetDistance > 50.0) runningTargetDistance = 50.0;
@@ -101,6 +196,9 @@ public class Config {
         if (playerMovementThreshold < 0.01) playerMovementThreshold = 0.01;
         if (playerMovementThreshold > 1.0) playerMovementThreshold = 1.0;
 
+        if (runningMultiplierStep < 0.01) runningMultiplierStep = 0.01;
+        if (runningMultiplierStep > 0.5) runningMultiplierStep = 0.5;
+
         // Natural Regeneration validation
         if (regenDelayTicks < 20) regenDelayTicks = 20; // Minimum 1 second
         if (regenDelayTicks > 6000) regenDelayTicks = 6000; // Maximum 5 minutes
@@ -111,6 +209,13 @@ public class Config {
         if (regenMaxHealthPercent < 0.1f) regenMaxHealthPercent = 0.1f;
         if (regenMaxHealthPercent > 1.0f) regenMaxHealthPercent = 1.0f;
         
+        // Unknown debug categories fall back to logging everything
+        if (!PetLogger.isValidCategoryList(debugLogCategories)) {
+            debugLogCategories = "all";
+        } else {
+            debugLogCategories = debugLogCategories.toLowerCase().replace(" ", "");
+        }
+
         // Language validation - ensure lowercase with underscore
         if (language == null || language.isEmpty()) {
             language = "en_us";
@@ -121,9 +226,17 @@ public class Config {
         // Glow duration validation
         if (glowDurationSeconds < 5) glowDurationSeconds = 5; // Minimum 5 seconds
         if (glowDurationSeconds > 300) glowDurationSeconds = 300; // Maximum 5 minutes
+
+        // Per-pet profiles - configs from older versions don't have any
+        if (petProfiles == null) petProfiles = new LinkedHashMap<>();
+        petProfiles.values().removeIf(profile -> profile == null);
+        petProfiles.values().forEach(PetProfile::validateAndFixValues);
     }
 
     public void saveConfig() {
+        // Every load, set and reset ends up here, so this is where new values get published
+        SNAPSHOT = new ConfigSnapshot(this);
+
         Path configPath = FabricLoader.getInstance().getConfigDir().resolve(CONFIG_FILE_NAME);
 
         try {
@@ -139,6 +252,20 @@ public class Config {
 
     public void reloadConfig() {
         INSTANCE = loadConfig();
+        refreshSnapshot(); // Reports profiles for unknown entity types
+    }
+
+    /**
+     * Recompile the snapshot once every mod has registered its entity types,
+     * so profiles for modded pets resolve even though the config loads during mod init
+     */
+    public static void refreshSnapshot() {
+        ConfigSnapshot snapshot = new ConfigSnapshot(getInstance());
+        SNAPSHOT = snapshot;
+
+        for (String typeId : snapshot.unknownProfileTypes) {
+            System.err.println("[EasyPets] Unknown entity type in petProfiles: " + typeId);
+        }
     }
 
     // Method to get default values for ConfigCommand
@@ -148,12 +275,27 @@ public class Config {
             case "enableChunkLoading" -> String.valueOf(defaultConfig.enableChunkLoading);
             case "teleportDistance" -> String.valueOf(defaultConfig.teleportDistance);
             case "maxChunkDistance" -> String.valueOf(defaultConfig.maxChunkDistance);
+            case "idleChunkDistance" -> String.valueOf(defaultConfig.idleChunkDistance);
+            case "farBehindChunkDistance" -> String.valueOf(defaultConfig.farBehindChunkDistance);
+            case "ticketHysteresisBlocks" -> String.valueOf(defaultConfig.ticketHysteresisBlocks);
+            case "ticketHysteresisSeconds" -> String.valueOf(defaultConfig.ticketHysteresisSeconds);
             case "navigationScanningRange" -> String.valueOf(defaultConfig.navigationScanningRange);
+            case "enablePackPathfinding" -> String.valueOf(defaultConfig.enablePackPathfinding);
+            case "enableFollowPathCache" -> String.valueOf(defaultConfig.enableFollowPathCache);
+            case "followPathNodeBudget" -> String.valueOf(defaultConfig.followPathNodeBudget);
+            case "teleportPathCostBudget" -> String.valueOf(defaultConfig.teleportPathCostBudget);
             case "autoRecoverOnFirstJoin" -> String.valueOf(defaultConfig.autoRecoverOnFirstJoin);
+            case "calmedEntityWhitelistMinutes" -> String.valueOf(defaultConfig.calmedEntityWhitelistMinutes);
+            case "enablePredictiveChunkLoading" -> String.valueOf(defaultConfig.enablePredictiveChunkLoading);
+            case "maxPredictedChunks" -> String.valueOf(defaultConfig.maxPredictedChunks);
+            case "upkeepFullRange" -> String.valueOf(defaultConfig.upkeepFullRange);
+            case "upkeepReducedRange" -> String.valueOf(defaultConfig.upkeepReducedRange);
+            case "upkeepReducedInterval" -> String.valueOf(defaultConfig.upkeepReducedInterval);
             case "enableDynamicRunning" -> String.valueOf(defaultConfig.enableDynamicRunning);
             case "runningTargetDistance" -> String.valueOf(defaultConfig.runningTargetDistance);
             case "maxRunningMultiplier" -> String.valueOf(defaultConfig.maxRunningMultiplier);
             case "playerMovementThreshold" -> String.valueOf(defaultConfig.playerMovementThreshold);
+            case "runningMultiplierStep" -> String.valueOf(defaultConfig.runningMultiplierStep);
             case "enableNaturalRegen" -> String.valueOf(defaultConfig.enableNaturalRegen);
             case "regenDelayTicks" -> String.valueOf(defaultConfig.regenDelayTicks);
             case "regenAmountPerSecond" -> String.valueOf(defaultConfig.regenAmountPerSecond);
@@ -161,6 +303,7 @@ public class Config {
             case "saveOnLocate" -> String.valueOf(defaultConfig.saveOnLocate);
             case "saveOnRecovery" -> String.valueOf(defaultConfig.saveOnRecovery);
             case "enableDebugLogging" -> String.valueOf(defaultConfig.enableDebugLogging);
+            case "debugLogCategories" -> defaultConfig.debugLogCategories;
             case "language" -> defaultConfig.language;
             case "glowDurationSeconds" -> String.valueOf(defaultConfig.glowDurationSeconds);
             default -> "unknown";
@@ -175,12 +318,27 @@ public class Config {
         this.enableChunkLoading = defaultConfig.enableChunkLoading;
         this.teleportDistance = defaultConfig.teleportDistance;
         this.maxChunkDistance = defaultConfig.maxChunkDistance;
+        this.idleChunkDistance = defaultConfig.idleChunkDistance;
+        this.farBehindChunkDistance = defaultConfig.farBehindChunkDistance;
+        this.ticketHysteresisBlocks = defaultConfig.ticketHysteresisBlocks;
+        this.ticketHysteresisSeconds = defaultConfig.ticketHysteresisSeconds;
         this.navigationScanningRange = defaultConfig.navigationScanningRange;
+        this.enablePackPathfinding = defaultConfig.enablePackPathfinding;
+        this.enableFollowPathCache = defaultConfig.enableFollowPathCache;
+        this.followPathNodeBudget = defaultConfig.followPathNodeBudget;
+        this.teleportPathCostBudget = defaultConfig.teleportPathCostBudget;
         this.autoRecoverOnFirstJoin = defaultConfig.autoRecoverOnFirstJoin;
+        this.calmedEntityWhitelistMinutes = defaultConfig.calmedEntityWhitelistMinutes;
+        this.enablePredictiveChunkLoading = defaultConfig.enablePredictiveChunkLoading;
+        this.maxPredictedChunks = defaultConfig.maxPredictedChunks;
+        this.upkeepFullRange = defaultConfig.upkeepFullRange;
+        this.upkeepReducedRange = defaultConfig.upkeepReducedRange;
+        this.upkeepReducedInterval = defaultConfig.upkeepReducedInterval;
         this.enableDynamicRunning = defaultConfig.enableDynamicRunning;
         this.runningTargetDistance = defaultConfig.runningTargetDistance;
         this.maxRunningMultiplier = defaultConfig.maxRunningMultiplier;
         this.playerMovementThreshold = defaultConfig.playerMovementThreshold;
+        this.runningMultiplierStep = defaultConfig.runningMultiplierStep;
         this.enableNaturalRegen = defaultConfig.enableNaturalRegen;
         this.regenDelayTicks = defaultConfig.regenDelayTicks;
         this.regenAmountPerSecond = defaultConfig.regenAmountPerSecond;
@@ -188,6 +346,7 @@ public class Config {
         this.saveOnLocate = defaultConfig.saveOnLocate;
         this.saveOnRecovery = defaultConfig.saveOnRecovery;
         this.enableDebugLogging = defaultConfig.enableDebugLogging;
+        this.debugLogCategories = defaultConfig.debugLogCategories;
         this.language = defaultConfig.language;
         this.glowDurationSeconds = defaultConfig.glowDurationSeconds;
     }
@@ -198,15 +357,35 @@ public class Config {
     public boolean shouldSaveOnLocate() { return saveOnLocate; }
     public boolean shouldSaveOnRecovery() { return saveOnRecovery; }
     public boolean shouldAutoRecoverOnFirstJoin() { return autoRecoverOnFirstJoin; }
+    public int getCalmedEntityWhitelistMinutes() { return calmedEntityWhitelistMinutes; }
     public boolean isDebugLoggingEnabled() { return enableDebugLogging; }
+    public String getDebugLogCategories() { return debugLogCategories; }
     public int getMaxChunkDistance() { return maxChunkDistance; }
+    public int getIdleChunkDistance() { return idleChunkDistance; }
+    public int getFarBehindChunkDistance() { return farBehindChunkDistance; }
+    public int getTicketHysteresisBlocks() { return ticketHysteresisBlocks; }
+    public int getTicketHysteresisSeconds() { return ticketHysteresisSeconds; }
     public int getNavigationScanningRange() { return navigationScanningRange; }
+    public boolean isPackPathfindingEnabled() { return enablePackPathfinding; }
+    public boolean isFollowPathCacheEnabled() { return enableFollowPathCache; }
+    public int getFollowPathNodeBudget() { return followPathNodeBudget; }
+    public int getTeleportPathCostBudget() { return teleportPathCostBudget; }
+
+    // Predictive chunk preloading getters
+    public boolean isPredictiveChunkLoadingEnabled() { return enablePredictiveChunkLoading; }
+    public int getMaxPredictedChunks() { return maxPredictedChunks; }
+
+    // Upkeep level of detail getters
+    public double getUpkeepFullRange() { return upkeepFullRange; }
+    public double getUpkeepReducedRange() { return upkeepReducedRange; }
+    public int getUpkeepReducedInterval() { return upkeepReducedInterval; }
 
     // Dynamic Pet Running getters
     public boolean isDynamicRunningEnabled() { return enableDynamicRunning; }
     public double getRunningTargetDistance() { return runningTargetDistance; }
     public double getMaxRunningMultiplier() { return maxRunningMultiplier; }
     public double getPlayerMovementThreshold() { return playerMovementThreshold; }
+    public double getRunningMultiplierStep() { return runningMultiplierStep; }
 
     // Natural Regeneration getters
     public boolean isNaturalRegenEnabled() { return enableNaturalRegen; }
@@ -219,6 +398,7 @@ public class Config {
     
     // Glow duration getter
     public int getGlowDurationSeconds() { return glowDurationSeconds; }
+    public Map<String, PetProfile> getPetProfiles() { return petProfiles; }
 
     // FIXED: Now actually returns squared distance in blocks, not chunks
     public double getTeleportDistanceSquared() {
@@ -230,17 +410,32 @@ public class Config {
         System.out.println("  Chunk Loading Enabled: " + enableChunkLoading);
         System.out.println("  Pet Teleport Distance: " + teleportDistance + " blocks"); // Now actually blocks!
         System.out.println("  Auto-Recover on First Join: " + autoRecoverOnFirstJoin);
+        System.out.println("  Calmed Entity Whitelist Minutes: " + calmedEntityWhitelistMinutes);
         System.out.println("  Save on /petlocate: " + saveOnLocate);
         System.out.println("  Save on Recovery: " + saveOnRecovery);
-        System.out.println("  Debug Logging: " + enableDebugLogging);
+        System.out.println("  Debug Logging: " + enableDebugLogging + " (" + debugLogCategories + ")");
         System.out.println("  Max Chunk Distance: " + maxChunkDistance);
+        System.out.println("  Idle Chunk Distance: " + idleChunkDistance);
+        System.out.println("  Far Behind Chunk Distance: " + farBehindChunkDistance);
+        System.out.println("  Ticket Hysteresis: " + ticketHysteresisBlocks + " blocks / " + ticketHysteresisSeconds + " seconds");
         System.out.println("  Navigation Scanning Range: " + navigationScanningRange + " blocks");
+        System.out.println("  Pack Pathfinding: " + enablePackPathfinding);
+        System.out.println("  Follow Path Cache: " + enableFollowPathCache);
+        System.out.println("  Follow Path Budget: " + followPathNodeBudget + " nodes/tick");
+        System.out.println("  Teleport Path Cost Budget: " + teleportPathCostBudget + " nodes");
+        System.out.println("  Predictive Chunk Loading: " + enablePredictiveChunkLoading);
+        if (enablePredictiveChunkLoading) {
+            System.out.println("    Max Predicted Chunks: " + maxPredictedChunks);
+        }
+        System.out.println("  Upkeep Ranges: full within " + upkeepFullRange + " blocks, every " + upkeepReducedInterval +
+                " ticks within " + upkeepReducedRange + " blocks");
         System.out.println("  ");
         System.out.println("  Dynamic Pet Running: " + enableDynamicRunning);
         if (enableDynamicRunning) {
             System.out.println("    Running Target Distance: " + runningTargetDistance + " blocks");
             System.out.println("    Max Running Multiplier: " + maxRunningMultiplier + "x");
             System.out.println("    Player Movement Threshold: " + playerMovementThreshold + " blocks/tick");
+            System.out.println("    Running Multiplier Step: " + runningMultiplierStep);
         }
         System.out.println("  ");
         System.out.println("  Natural Regeneration: " + enableNaturalRegen);
@@ -249,6 +444,10 @@ public class Config {
             System.out.println("    Regen Rate: " + regenAmountPerSecond + " health/second");
             System.out.println("    Max Health %: " + (regenMaxHealthPercent * 100) + "%");
         }
+        if (!petProfiles.isEmpty()) {
+            System.out.println("  ");
+            System.out.println("  Pet Profiles: " + String.join(", ", petProfiles.keySet()));
+        }
         System.out.println("  System: Player-based (like ender pearls)");
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import org.tecna.easypets.translation.TranslationManager;
+import org.tecna.easypets.util.PetLogger;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,14 +30,29 @@ public class ConfigCommand {
         SETTING_INFO.put("enableChunkLoading", new SettingInfo("enableChunkLoading", "boolean"));
         SETTING_INFO.put("teleportDistance", new SettingInfo("teleportDistance", "1.0-∞"));
         SETTING_INFO.put("maxChunkDistance", new SettingInfo("maxChunkDistance", "1-10"));
+        SETTING_INFO.put("idleChunkDistance", new SettingInfo("idleChunkDistance", "1-10"));
+        SETTING_INFO.put("farBehindChunkDistance", new SettingInfo("farBehindChunkDistance", "1-10"));
+        SETTING_INFO.put("ticketHysteresisBlocks", new SettingInfo("ticketHysteresisBlocks", "0-15"));
+        SETTING_INFO.put("ticketHysteresisSeconds", new SettingInfo("ticketHysteresisSeconds", "1-60"));
         SETTING_INFO.put("navigationScanningRange", new SettingInfo("navigationScanningRange", "8-1000"));
+        SETTING_INFO.put("enablePackPathfinding", new SettingInfo("enablePackPathfinding", "boolean"));
+        SETTING_INFO.put("enableFollowPathCache", new SettingInfo("enableFollowPathCache", "boolean"));
+        SETTING_INFO.put("followPathNodeBudget", new SettingInfo("followPathNodeBudget", "256-65536"));
+        SETTING_INFO.put("teleportPathCostBudget", new SettingInfo("teleportPathCostBudget", "64-16384"));
         SETTING_INFO.put("autoRecoverOnFirstJoin", new SettingInfo("autoRecoverOnFirstJoin", "boolean"));
+        SETTING_INFO.put("calmedEntityWhitelistMinutes", new SettingInfo("calmedEntityWhitelistMinutes", "0-10080"));
+        SETTING_INFO.put("enablePredictiveChunkLoading", new SettingInfo("enablePredictiveChunkLoading", "boolean"));
+        SETTING_INFO.put("maxPredictedChunks", new SettingInfo("maxPredictedChunks", "1-16"));
+        SETTING_INFO.put("upkeepFullRange", new SettingInfo("upkeepFullRange", "4.0-128.0"));
+        SETTING_INFO.put("upkeepReducedRange", new SettingInfo("upkeepReducedRange", "4.0-256.0"));
+        SETTING_INFO.put("upkeepReducedInterval", new SettingInfo("upkeepReducedInterval", "2-20"));
         
         // Dynamic Pet Running settings
         SETTING_INFO.put("enableDynamicRunning", new SettingInfo("enableDynamicRunning", "boolean"));
         SETTING_INFO.put("runningTargetDistance", new SettingInfo("runningTargetDistance", "1.0-50.0"));
         SETTING_INFO.put("maxRunningMultiplier", new SettingInfo("maxRunningMultiplier", "1.0-10.0"));
         SETTING_INFO.put("playerMovementThreshold", new SettingInfo("playerMovementThreshold", "0.01-1.0"));
+        SETTING_INFO.put("runningMultiplierStep", new SettingInfo("runningMultiplierStep", "0.01-0.5"));
         
         // Natural Regeneration settings
         SETTING_INFO.put("enableNaturalRegen", new SettingInfo("enableNaturalRegen", "boolean"));
@@ -56,6 +72,7 @@ public class ConfigCommand {
         
         // Debug option
         SETTING_INFO.put("enableDebugLogging", new SettingInfo("enableDebugLogging", "boolean"));
+        SETTING_INFO.put("debugLogCategories", new SettingInfo("debugLogCategories", "all or regen,tickets,scan,glow,whitelist,general"));
     }
 
     public static void register() {
@@ -108,12 +125,58 @@ public class ConfigCommand {
                                                     builder.suggest("2"); // Default
                                                     builder.suggest("3");
                                                     builder.suggest("4");
+                                                } else if (settingName.equals("idleChunkDistance")) {
+                                                    builder.suggest("1"); // Default - loaded only, no ticking
+                                                    builder.suggest("2"); // Pet's own chunk ticks
+                                                } else if (settingName.equals("farBehindChunkDistance")) {
+                                                    builder.suggest("1"); // Loaded only, no ticking
+                                                    builder.suggest("2"); // Default
+                                                    builder.suggest("3");
+                                                } else if (settingName.equals("ticketHysteresisBlocks")) {
+                                                    builder.suggest("0"); // Move immediately
+                                                    builder.suggest("4"); // Default
+                                                    builder.suggest("8");
+                                                } else if (settingName.equals("ticketHysteresisSeconds")) {
+                                                    builder.suggest("3");
+                                                    builder.suggest("5"); // Default
+                                                    builder.suggest("10");
                                                 } else if (settingName.equals("navigationScanningRange")) {
                                                     builder.suggest("16");
                                                     builder.suggest("64");
                                                     builder.suggest("128");
                                                     builder.suggest("256");
                                                     builder.suggest("512");
+                                                } else if (settingName.equals("followPathNodeBudget")) {
+                                                    builder.suggest("1024");
+                                                    builder.suggest("2048"); // Default
+                                                    builder.suggest("4096");
+                                                    builder.suggest("8192");
+                                                } else if (settingName.equals("teleportPathCostBudget")) {
+                                                    builder.suggest("256");
+                                                    builder.suggest("512"); // Default
+                                                    builder.suggest("1024");
+                                                    builder.suggest("16384"); // Effectively off
+                                                } else if (settingName.equals("calmedEntityWhitelistMinutes")) {
+                                                    builder.suggest("0"); // Forever
+                                                    builder.suggest("15");
+                                                    builder.suggest("60"); // Default
+                                                    builder.suggest("1440"); // One day
+                                                } else if (settingName.equals("maxPredictedChunks")) {
+                                                    builder.suggest("2");
+                                                    builder.suggest("4"); // Default
+                                                    builder.suggest("8");
+                                                } else if (settingName.equals("upkeepFullRange")) {
+                                                    builder.suggest("16.0");
+                                                    builder.suggest("24.0"); // Default
+                                                    builder.suggest("32.0");
+                                                } else if (settingName.equals("upkeepReducedRange")) {
+                                                    builder.suggest("48.0");
+                                                    builder.suggest("64.0"); // Default
+                                                    builder.suggest("96.0");
+                                                } else if (settingName.equals("upkeepReducedInterval")) {
+                                                    builder.suggest("2");
+                                                    builder.suggest("4"); // Default
+                                                    builder.suggest("10");
                                                 } else if (settingName.equals("runningTargetDistance")) {
                                                     builder.suggest("4.0");  // Default
                                                     builder.suggest("6.0");  // Further
@@ -122,6 +185,10 @@ public class ConfigCommand {
                                                     builder.suggest("1.6");  // Default
                                                     builder.suggest("1.8");  // Faster
                                                     builder.suggest("2.0");  // Very fast
+                                                } else if (settingName.equals("runningMultiplierStep")) {
+                                                    builder.suggest("0.05"); // Default
+                                                    builder.suggest("0.1");  // Fewer updates
+                                                    builder.suggest("0.2");  // Coarse
                                                 } else if (settingName.equals("regenDelayTicks")) {
                                                     builder.suggest("300");   // 15 seconds (default)
                                                     builder.suggest("600");   // 30 seconds
@@ -141,6 +208,11 @@ public class ConfigCommand {
                                                     // Dynamically suggest available languages
                                                     TranslationManager.getInstance().getAvailableLanguages()
                                                             .forEach(builder::suggest);
+                                                } else if (settingName.equals("debugLogCategories")) {
+                                                    builder.suggest("all"); // Default
+                                                    builder.suggest("regen");
+                                                    builder.suggest("tickets");
+                                                    builder.suggest("scan,whitelist");
                                                 } else if (settingName.equals("glowDurationSeconds")) {
                                                     builder.suggest("30");   // Default
                                                     builder.suggest("15");   // Short
@@ -246,9 +318,7 @@ public class ConfigCommand {
 
         } catch (Exception e) {
             // LuckPerms not available or error occurred, fall back to vanilla
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] LuckPerms not available or error checking permission '" + permission + "': " + e.getMessage());
-            }
+            PetLogger.debug(PetLogger.Category.GENERAL, () -> "LuckPerms not available or error checking permission '" + permission + "': " + e.getMessage());
             return null;
         }
     }
@@ -273,8 +343,24 @@ public class ConfigCommand {
         source.sendMessage(Text.literal("§f  enableChunkLoading: §" + (config.isChunkLoadingEnabled() ? "a" + enabledStr : "c" + disabledStr)));
         source.sendMessage(Text.literal("§f  teleportDistance: §b" + config.getTeleportDistance() + " blocks"));
         source.sendMessage(Text.literal("§f  maxChunkDistance: §b" + config.getMaxChunkDistance() + " chunks"));
+        source.sendMessage(Text.literal("§f  idleChunkDistance: §b" + config.getIdleChunkDistance() + " chunks"));
+        source.sendMessage(Text.literal("§f  farBehindChunkDistance: §b" + config.getFarBehindChunkDistance() + " chunks"));
+        source.sendMessage(Text.literal("§f  ticketHysteresisBlocks: §b" + config.getTicketHysteresisBlocks() + " blocks"));
+        source.sendMessage(Text.literal("§f  ticketHysteresisSeconds: §b" + config.getTicketHysteresisSeconds() + " seconds"));
         source.sendMessage(Text.literal("§f  navigationScanningRange: §b" + config.getNavigationScanningRange() + " blocks"));
+        source.sendMessage(Text.literal("§f  enablePackPathfinding: §" + (config.isPackPathfindingEnabled() ? "a" + enabledStr : "c" + disabledStr)));
+        source.sendMessage(Text.literal("§f  enableFollowPathCache: §" + (config.isFollowPathCacheEnabled() ? "a" + enabledStr : "c" + disabledStr)));
+        source.sendMessage(Text.literal("§f  followPathNodeBudget: §b" + config.getFollowPathNodeBudget() + " nodes/tick"));
+        source.sendMessage(Text.literal("§f  teleportPathCostBudget: §b" + config.getTeleportPathCostBudget() + " nodes"));
         source.sendMessage(Text.literal("§f  autoRecoverOnFirstJoin: §" + (config.shouldAutoRecoverOnFirstJoin() ? "a" + enabledStr : "c" + disabledStr)));
+        source.sendMessage(Text.literal("§f  calmedEntityWhitelistMinutes: §b" + (config.getCalmedEntityWhitelistMinutes() == 0 ? "forever" : config.getCalmedEntityWhitelistMinutes() + " minutes")));
+        source.sendMessage(Text.literal("§f  enablePredictiveChunkLoading: §" + (config.isPredictiveChunkLoadingEnabled() ? "a" + enabledStr : "c" + disabledStr)));
+        if (config.isPredictiveChunkLoadingEnabled()) {
+            source.sendMessage(Text.literal("§f  maxPredictedChunks: §b" + config.getMaxPredictedChunks() + " chunks"));
+        }
+        source.sendMessage(Text.literal("§f  upkeepFullRange: §b" + config.getUpkeepFullRange() + " blocks"));
+        source.sendMessage(Text.literal("§f  upkeepReducedRange: §b" + config.getUpkeepReducedRange() + " blocks"));
+        source.sendMessage(Text.literal("§f  upkeepReducedInterval: §b" + config.getUpkeepReducedInterval() + " ticks"));
         source.sendMessage(Text.empty());
 
         // Dynamic Pet Running
@@ -284,6 +370,7 @@ public class ConfigCommand {
             source.sendMessage(Text.literal("§f  runningTargetDistance: §b" + config.getRunningTargetDistance() + " blocks"));
             source.sendMessage(Text.literal("§f  maxRunningMultiplier: §b" + config.getMaxRunningMultiplier() + "x"));
             source.sendMessage(Text.literal("§f  playerMovementThreshold: §b" + config.getPlayerMovementThreshold()));
+            source.sendMessage(Text.literal("§f  runningMultiplierStep: §b" + config.getRunningMultiplierStep()));
         }
         source.sendMessage(Text.empty());
 
@@ -317,6 +404,7 @@ public class ConfigCommand {
         // Debug
         source.sendMessage(formatted("§6", "easypets.config.category.debug"));
         source.sendMessage(Text.literal("§f  enableDebugLogging: §" + (config.isDebugLoggingEnabled() ? "a" + enabledStr : "c" + disabledStr)));
+        source.sendMessage(Text.literal("§f  debugLogCategories: §b" + config.getDebugLogCategories()));
         source.sendMessage(Text.empty());
 
         return 1;
@@ -461,12 +549,27 @@ public class ConfigCommand {
             case "enableChunkLoading" -> String.valueOf(config.isChunkLoadingEnabled());
             case "teleportDistance" -> String.valueOf(config.getTeleportDistance());
             case "maxChunkDistance" -> String.valueOf(config.getMaxChunkDistance());
+            case "idleChunkDistance" -> String.valueOf(config.getIdleChunkDistance());
+            case "farBehindChunkDistance" -> String.valueOf(config.getFarBehindChunkDistance());
+            case "ticketHysteresisBlocks" -> String.valueOf(config.getTicketHysteresisBlocks());
+            case "ticketHysteresisSeconds" -> String.valueOf(config.getTicketHysteresisSeconds());
             case "navigationScanningRange" -> String.valueOf(config.getNavigationScanningRange());
+            case "enablePackPathfinding" -> String.valueOf(config.isPackPathfindingEnabled());
+            case "enableFollowPathCache" -> String.valueOf(config.isFollowPathCacheEnabled());
+            case "followPathNodeBudget" -> String.valueOf(config.getFollowPathNodeBudget());
+            case "teleportPathCostBudget" -> String.valueOf(config.getTeleportPathCostBudget());
             case "autoRecoverOnFirstJoin" -> String.valueOf(config.shouldAutoRecoverOnFirstJoin());
+            case "calmedEntityWhitelistMinutes" -> String.valueOf(config.getCalmedEntityWhitelistMinutes());
+            case "enablePredictiveChunkLoading" -> String.valueOf(config.isPredictiveChunkLoadingEnabled());
+            case "maxPredictedChunks" -> String.valueOf(config.getMaxPredictedChunks());
+            case "upkeepFullRange" -> String.valueOf(config.getUpkeepFullRange());
+            case "upkeepReducedRange" -> String.valueOf(config.getUpkeepReducedRange());
+            case "upkeepReducedInterval" -> String.valueOf(config.getUpkeepReducedInterval());
             case "enableDynamicRunning" -> String.valueOf(config.isDynamicRunningEnabled());
             case "runningTargetDistance" -> String.valueOf(config.getRunningTargetDistance());
             case "maxRunningMultiplier" -> String.valueOf(config.getMaxRunningMultiplier());
             case "playerMovementThreshold" -> String.valueOf(config.getPlayerMovementThreshold());
+            case "runningMultiplierStep" -> String.valueOf(config.getRunningMultiplierStep());
             case "enableNaturalRegen" -> String.valueOf(config.isNaturalRegenEnabled());
             case "regenDelayTicks" -> String.valueOf(config.getRegenDelayTicks());
             case "regenAmountPerSecond" -> String.valueOf(config.getRegenAmountPerSecond());
@@ -474,6 +577,7 @@ public class ConfigCommand {
             case "saveOnLocate" -> String.valueOf(config.shouldSaveOnLocate());
             case "saveOnRecovery" -> String.valueOf(config.shouldSaveOnRecovery());
             case "enableDebugLogging" -> String.valueOf(config.isDebugLoggingEnabled());
+            case "debugLogCategories" -> config.getDebugLogCategories();
             case "language" -> config.getLanguage();
             case "glowDurationSeconds" -> String.valueOf(config.getGlowDurationSeconds());
             default -> "unknown";
@@ -501,6 +605,34 @@ public class ConfigCommand {
                         return true;
                     }
                 }
+                case "idleChunkDistance" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 1 && i <= 10) {
+                        config.idleChunkDistance = i;
+                        return true;
+                    }
+                }
+                case "farBehindChunkDistance" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 1 && i <= 10) {
+                        config.farBehindChunkDistance = i;
+                        return true;
+                    }
+                }
+                case "ticketHysteresisBlocks" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 0 && i <= 15) {
+                        config.ticketHysteresisBlocks = i;
+                        return true;
+                    }
+                }
+                case "ticketHysteresisSeconds" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 1 && i <= 60) {
+                        config.ticketHysteresisSeconds = i;
+                        return true;
+                    }
+                }
                 case "navigationScanningRange" -> {
                     int i = Integer.parseInt(value);
                     if (i >= 8 && i <= 1000) {
@@ -508,10 +640,73 @@ public class ConfigCommand {
                         return true;
                     }
                 }
+                case "enablePackPathfinding" -> {
+                    config.enablePackPathfinding = Boolean.parseBoolean(value);
+                    return true;
+                }
+                case "enableFollowPathCache" -> {
+                    config.enableFollowPathCache = Boolean.parseBoolean(value);
+                    return true;
+                }
+                case "followPathNodeBudget" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 256 && i <= 65536) {
+                        config.followPathNodeBudget = i;
+                        return true;
+                    }
+                }
+                case "teleportPathCostBudget" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 64 && i <= 16384) {
+                        config.teleportPathCostBudget = i;
+                        return true;
+                    }
+                }
                 case "autoRecoverOnFirstJoin" -> {
                     config.autoRecoverOnFirstJoin = Boolean.parseBoolean(value);
                     return true;
                 }
+                case "calmedEntityWhitelistMinutes" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 0 && i <= 10080) {
+                        config.calmedEntityWhitelistMinutes = i;
+                        return true;
+                    }
+                }
+                case "enablePredictiveChunkLoading" -> {
+                    config.enablePredictiveChunkLoading = Boolean.parseBoolean(value);
+                    return true;
+                }
+                case "maxPredictedChunks" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 1 && i <= 16) {
+                        config.maxPredictedChunks = i;
+                        return true;
+                    }
+                }
+                case "upkeepFullRange" -> {
+                    double d = Double.parseDouble(value);
+                    if (d >= 4.0 && d <= 128.0) {
+                        config.upkeepFullRange = d;
+                        // Keep the reduced range outside the full range
+                        if (config.upkeepReducedRange < d) config.upkeepReducedRange = d;
+                        return true;
+                    }
+                }
+                case "upkeepReducedRange" -> {
+                    double d = Double.parseDouble(value);
+                    if (d >= config.upkeepFullRange && d <= 256.0) {
+                        config.upkeepReducedRange = d;
+                        return true;
+                    }
+                }
+                case "upkeepReducedInterval" -> {
+                    int i = Integer.parseInt(value);
+                    if (i >= 2 && i <= 20) {
+                        config.upkeepReducedInterval = i;
+                        return true;
+                    }
+                }
                 case "enableDynamicRunning" -> {
                     config.enableDynamicRunning = Boolean.parseBoolean(value);
                     return true;
@@ -537,6 +732,13 @@ public class ConfigCommand {
                         return true;
                     }
                 }
+                case "runningMultiplierStep" -> {
+                    double d = Double.parseDouble(value);
+                    if (d >= 0.01 && d <= 0.5) {
+                        config.runningMultiplierStep = d;
+                        return true;
+                    }
+                }
                 case "enableNaturalRegen" -> {
                     config.enableNaturalRegen = Boolean.parseBoolean(value);
                     return true;
@@ -574,6 +776,13 @@ public class ConfigCommand {
                     config.enableDebugLogging = Boolean.parseBoolean(value);
                     return true;
                 }
+                case "debugLogCategories" -> {
+                    if (!PetLogger.isValidCategoryList(value)) {
+                        return false; // Unknown category
+                    }
+                    config.debugLogCategories = value.toLowerCase().replace(" ", "");
+                    return true;
+                }
                 case "language" -> {
                     // Normalize language code
                     String normalizedLang = value.toLowerCase().replace("-", "_");
@@ -632,6 +841,24 @@ public class ConfigCommand {
                     source.sendMessage(formatted("§7", "easypets.config.warning.high_chunk_distance"));
                 }
             }
+            case "farBehindChunkDistance" -> {
+                int distance = Integer.parseInt(value);
+                if (distance < 2) {
+                    source.sendMessage(formatted("§7", "easypets.config.warning.low_far_behind_chunk_distance"));
+                }
+            }
+            case "maxPredictedChunks" -> {
+                int chunks = Integer.parseInt(value);
+                if (chunks > 8) {
+                    source.sendMessage(formatted("§7", "easypets.config.warning.high_predicted_chunks"));
+                }
+            }
+            case "upkeepReducedRange" -> {
+                double range = Double.parseDouble(value);
+                if (range < Config.getInstance().getTeleportDistance()) {
+                    source.sendMessage(formatted("§7", "easypets.config.warning.low_upkeep_range"));
+                }
+            }
             case "navigationScanningRange" -> {
                 int range = Integer.parseInt(value);
                 if (range > 300) {
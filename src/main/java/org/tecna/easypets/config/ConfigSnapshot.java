@@ -0,0 +1,145 @@
+package org.tecna.easypets.config;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import org.tecna.easypets.EntityTypeIdHolder;
+import org.tecna.easypets.util.PetLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of the config for per-tick code, with derived values worked out up front.
+ * A new snapshot is published whenever the config is loaded, changed or reset, so code that
+ * holds one sees a consistent set of values even if /petconfig runs mid-tick.
+ */
+public final class ConfigSnapshot {
+
+    // Feature bits
+    public static final int CHUNK_LOADING = 1;
+    public static final int PREDICTIVE_CHUNK_LOADING = 1 << 1;
+    public static final int DYNAMIC_RUNNING = 1 << 2;
+    public static final int NATURAL_REGEN = 1 << 3;
+    public static final int DEBUG_LOGGING = 1 << 4;
+    public static final int PACK_PATHFINDING = 1 << 5;
+    public static final int FOLLOW_PATH_CACHE = 1 << 6;
+
+    public final int features;
+    public final int debugLogCategories; // PetLogger.Category bits
+
+    // Chunk loading
+    public final int activeChunkRadius;
+    public final int idleChunkRadius; // Already capped at activeChunkRadius
+    public final int farBehindChunkRadius; // Already capped at activeChunkRadius
+    public final int ticketHysteresisBlocks;
+    public final int ticketHysteresisTicks;
+    public final int maxPredictedChunks;
+    public final int followPathNodeBudget;
+    public final int teleportPathCostBudget;
+
+    // Upkeep level of detail
+    public final double upkeepFullRangeSquared;
+    public final double upkeepReducedRangeSquared;
+    public final int upkeepReducedInterval;
+
+    // Dynamic running
+    public final double runningTargetDistance;
+    public final double runningFarDistance; // Beyond this pets always run at the maximum boost
+    public final double playerMovementThreshold;
+    public final double runningMultiplierStep;
+
+    // Per-entity-type settings, indexed by raw entity type id
+    // Types without a profile share defaultProfile, so lookups never miss inside the table
+    public final Profile defaultProfile;
+    private final Profile[] profilesByType;
+    final List<String> unknownProfileTypes = new ArrayList<>();
+
+    ConfigSnapshot(Config config) {
+        this.features = (config.enableChunkLoading ? CHUNK_LOADING : 0)
+                | (config.enablePredictiveChunkLoading ? PREDICTIVE_CHUNK_LOADING : 0)
+                | (config.enableDynamicRunning ? DYNAMIC_RUNNING : 0)
+                | (config.enableNaturalRegen ? NATURAL_REGEN : 0)
+                | (config.enableDebugLogging ? DEBUG_LOGGING : 0)
+                | (config.enablePackPathfinding ? PACK_PATHFINDING : 0)
+                | (config.enableFollowPathCache ? FOLLOW_PATH_CACHE : 0);
+        this.debugLogCategories = PetLogger.parseCategories(config.debugLogCategories);
+
+        this.activeChunkRadius = config.maxChunkDistance;
+        this.idleChunkRadius = Math.min(config.idleChunkDistance, config.maxChunkDistance);
+        this.farBehindChunkRadius = Math.min(config.farBehindChunkDistance, config.maxChunkDistance);
+        this.ticketHysteresisBlocks = config.ticketHysteresisBlocks;
+        this.ticketHysteresisTicks = config.ticketHysteresisSeconds * 20;
+        this.maxPredictedChunks = config.maxPredictedChunks;
+        this.followPathNodeBudget = config.followPathNodeBudget;
+        this.teleportPathCostBudget = config.teleportPathCostBudget;
+
+        this.upkeepFullRangeSquared = config.upkeepFullRange * config.upkeepFullRange;
+        this.upkeepReducedRangeSquared = config.upkeepReducedRange * config.upkeepReducedRange;
+        this.upkeepReducedInterval = config.upkeepReducedInterval;
+
+        this.runningTargetDistance = config.runningTargetDistance;
+        this.runningFarDistance = config.runningTargetDistance * 2;
+        this.playerMovementThreshold = config.playerMovementThreshold;
+        this.runningMultiplierStep = config.runningMultiplierStep;
+
+        this.defaultProfile = new Profile(config, new Config.PetProfile());
+        this.profilesByType = new Profile[Registries.ENTITY_TYPE.size()];
+        Arrays.fill(profilesByType, defaultProfile);
+
+        for (Map.Entry<String, Config.PetProfile> entry : config.petProfiles.entrySet()) {
+            Identifier typeId = Identifier.tryParse(entry.getKey());
+            if (typeId == null || !Registries.ENTITY_TYPE.containsId(typeId)) {
+                unknownProfileTypes.add(entry.getKey());
+                continue;
+            }
+
+            int rawId = Registries.ENTITY_TYPE.getRawId(Registries.ENTITY_TYPE.get(typeId));
+            if (rawId >= 0 && rawId < profilesByType.length) {
+                profilesByType[rawId] = new Profile(config, entry.getValue());
+            }
+        }
+    }
+
+    public boolean isEnabled(int feature) {
+        return (features & feature) != 0;
+    }
+
+    /**
+     * Settings for this kind of pet
+     */
+    public Profile profileFor(Entity entity) {
+        return profileFor(entity.getType());
+    }
+
+    public Profile profileFor(EntityType<?> type) {
+        int rawId = ((EntityTypeIdHolder) type).getCachedRawId();
+        // Types registered after this snapshot was built use the global values until the next one
+        return rawId >= 0 && rawId < profilesByType.length ? profilesByType[rawId] : defaultProfile;
+    }
+
+    /**
+     * A pet profile with every missing value filled in from the global settings
+     */
+    public static final class Profile {
+        public final double teleportDistanceSquared;
+        public final int navigationScanningRange;
+        public final double maxRunningMultiplier;
+        public final int regenDelayTicks;
+        public final float regenAmountPerSecond;
+        public final float regenMaxHealthPercent;
+
+        Profile(Config config, Config.PetProfile profile) {
+            double teleportDistance = profile.teleportDistance != null ? profile.teleportDistance : config.teleportDistance;
+            this.teleportDistanceSquared = teleportDistance * teleportDistance;
+            this.navigationScanningRange = profile.navigationScanningRange != null ? profile.navigationScanningRange : config.navigationScanningRange;
+            this.maxRunningMultiplier = profile.maxRunningMultiplier != null ? profile.maxRunningMultiplier : config.maxRunningMultiplier;
+            this.regenDelayTicks = profile.regenDelayTicks != null ? profile.regenDelayTicks : config.regenDelayTicks;
+            this.regenAmountPerSecond = profile.regenAmountPerSecond != null ? profile.regenAmountPerSecond : config.regenAmountPerSecond;
+            this.regenMaxHealthPercent = profile.regenMaxHealthPercent != null ? profile.regenMaxHealthPercent : config.regenMaxHealthPercent;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.tecna.easypets.mixin;
+
+import net.minecraft.entity.ai.pathing.EntityNavigation;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.util.math.Vec3d;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.tecna.easypets.FollowPathPlanner;
+
+@Mixin(EntityNavigation.class)
+public abstract class EntityNavigationMixin {
+
+    @Shadow
+    @Final
+    protected MobEntity entity;
+
+    // Whether a path was being followed when checkTimeouts started
+    @Unique
+    private boolean hadPathBeforeTimeoutCheck;
+
+    @Inject(method = "checkTimeouts", at = @At("HEAD"))
+    private void beforeCheckTimeouts(Vec3d currentPos, CallbackInfo ci) {
+        hadPathBeforeTimeoutCheck = ((EntityNavigation) (Object) this).getCurrentPath() != null;
+    }
+
+    @Inject(method = "checkTimeouts", at = @At("TAIL"))
+    private void afterCheckTimeouts(Vec3d currentPos, CallbackInfo ci) {
+        // Dropped here means the mob made no progress along it, unlike stop() from a goal or a teleport
+        if (hadPathBeforeTimeoutCheck && ((EntityNavigation) (Object) this).getCurrentPath() == null) {
+            FollowPathPlanner.onPathTimedOut(entity);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.tecna.easypets.mixin;
+
+import net.minecraft.entity.EntityType;
+import net.minecraft.registry.Registries;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.tecna.easypets.EntityTypeIdHolder;
+
+@Mixin(EntityType.class)
+public class EntityTypeMixin implements EntityTypeIdHolder {
+    // Entity types are registered at startup and their raw ids never change after that
+    @Unique
+    private int cachedRawId = -1;
+
+    @Override
+    public int getCachedRawId() {
+        int rawId = cachedRawId;
+        if (rawId < 0) {
+            rawId = Registries.ENTITY_TYPE.getRawId((EntityType<?>) (Object) this);
+            cachedRawId = rawId;
+        }
+        return rawId;
+    }
+}
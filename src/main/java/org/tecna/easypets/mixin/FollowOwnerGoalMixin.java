@@ -1,18 +1,25 @@
 package org.tecna.easypets.mixin;
 
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.ai.goal.FollowOwnerGoal;
 import net.minecraft.entity.ai.pathing.EntityNavigation;
+import net.minecraft.entity.passive.TameableEntity;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.tecna.easypets.FollowPathPlanner;
 import org.tecna.easypets.config.Config;
 
 @Mixin(FollowOwnerGoal.class)
 public class FollowOwnerGoalMixin {
 
+    @Shadow
+    @Final
+    private TameableEntity tameable;
 
     @Shadow
     @Final
@@ -21,7 +28,12 @@ public class FollowOwnerGoalMixin {
     @Inject(method = "start", at = @At("HEAD"))
     public void start(CallbackInfo ci) {
 
-        navigation.setMaxFollowRange(Config.getInstance().getNavigationScanningRange());
+        navigation.setMaxFollowRange(Config.snapshot().profileFor(tameable).navigationScanningRange);
+    }
+
+    @Redirect(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/ai/pathing/EntityNavigation;startMovingTo(Lnet/minecraft/entity/Entity;D)Z"))
+    private boolean planFollowPath(EntityNavigation navigation, Entity owner, double speed) {
+        return FollowPathPlanner.startFollowing(tameable, navigation, owner, speed);
     }
 
 
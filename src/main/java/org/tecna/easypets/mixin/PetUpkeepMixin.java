@@ -0,0 +1,24 @@
+package org.tecna.easypets.mixin;
+
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.passive.AnimalEntity;
+import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.tecna.easypets.PetUpkeep;
+
+@Mixin(TameableEntity.class)
+public abstract class PetUpkeepMixin extends AnimalEntity {
+
+    protected PetUpkeepMixin(EntityType<? extends AnimalEntity> entityType, World world) {
+        super(entityType, world);
+    }
+
+    // TameableEntity doesn't override tick, so add the override here instead of
+    // injecting into LivingEntity.tick and checking every mob in the world
+    @Override
+    public void tick() {
+        PetUpkeep.tick((TameableEntity) (Object) this);
+        super.tick();
+    }
+}
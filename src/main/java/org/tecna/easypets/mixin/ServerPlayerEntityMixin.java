@@ -2,34 +2,48 @@
 package org.tecna.easypets.mixin;
 
 import net.minecraft.entity.passive.TameableEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.storage.ReadView;
 import net.minecraft.storage.WriteView;
 import net.minecraft.text.Text;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Uuids;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.tecna.easypets.OwnerMotionHolder;
+import org.tecna.easypets.OwnerMotionTracker;
+import org.tecna.easypets.PetChunkPredictor;
 import org.tecna.easypets.PetChunkTickets;
 import org.tecna.easypets.PetRecoveryCommand;
+import org.tecna.easypets.PetTicketState;
 import org.tecna.easypets.SimplePetTracker;
 import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
 import org.tecna.easypets.translation.TranslationManager;
+import org.tecna.easypets.util.PetLogger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
 @Mixin(ServerPlayerEntity.class)
-public class ServerPlayerEntityMixin implements SimplePetTracker {
-    // Track pets and their last known positions
+public class ServerPlayerEntityMixin implements SimplePetTracker, OwnerMotionHolder {
+    // Track pets and where their chunk tickets are centered
     @Unique
-    private final Map<UUID, ChunkPos> petChunkPositions = new HashMap<>();
+    private final Map<UUID, PetTicketState> petChunkPositions = new HashMap<>();
 
     // Track if first-time recovery has been performed
     @Unique
@@ -43,6 +57,10 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
     @Unique
     private boolean justJoined = false;
 
+    // Shared by every pet following this player and by predictive chunk preloading
+    @Unique
+    private final OwnerMotionTracker ownerMotion = new OwnerMotionTracker();
+
     @Inject(method = "tick", at = @At("HEAD"))
     private void onPlayerTick(CallbackInfo ci) {
         ServerPlayerEntity player = (ServerPlayerEntity) (Object) this;
@@ -50,6 +68,8 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
         // Increment join counter
         ticksSinceJoin++;
 
+        ownerMotion.update(player.getX(), player.getY(), player.getZ());
+
         // Check for first-time auto recovery (wait 5 seconds after join)
         if (justJoined && ticksSinceJoin == 100 && !hasPerformedFirstTimeRecovery) {
             justJoined = false;
@@ -60,6 +80,11 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
         if (player.age % 20 == 0) {
             updatePetChunkTickets(player);
         }
+
+        // Only predict for players who actually have pets following them
+        if (player.age % 5 == 0 && !this.petChunkPositions.isEmpty() && Config.snapshot().isEnabled(ConfigSnapshot.CHUNK_LOADING)) {
+            PetChunkPredictor.preloadAhead(player, ownerMotion);
+        }
     }
 
     @Unique
@@ -68,18 +93,14 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
 
         // Check if auto-recovery is enabled
         if (!config.shouldAutoRecoverOnFirstJoin()) {
-            if (config.isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Auto-recovery disabled in config for player: " + player.getGameProfile().name());
-            }
+            PetLogger.debug(PetLogger.Category.SCAN, () -> "Auto-recovery disabled in config for player: " + player.getGameProfile().name());
             return;
         }
 
         // Mark as performed so it doesn't run again
         hasPerformedFirstTimeRecovery = true;
 
-        if (config.isDebugLoggingEnabled()) {
-            System.out.println("[EasyPets] Performing first-time pet recovery for player: " + player.getGameProfile().name());
-        }
+        PetLogger.debug(PetLogger.Category.SCAN, () -> "Performing first-time pet recovery for player: " + player.getGameProfile().name());
 
         // Send welcome message
         player.sendMessage(Text.literal("§e[EasyPets] " + TranslationManager.getInstance().translate("easypets.auto_recovery.welcome")), false);
@@ -94,20 +115,14 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
                 Boolean saveResult = org.tecna.easypets.util.SaveUtil.triggerFullSave(player.getEntityWorld().getServer()).get();
 
                 if (saveResult) {
-                    if (config.isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] World save completed successfully for first-time recovery");
-                    }
+                    PetLogger.debug(PetLogger.Category.SCAN, () -> "World save completed successfully for first-time recovery");
                     Thread.sleep(1500); // Give save time to complete
                 } else {
-                    if (config.isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] World save failed for first-time recovery, continuing anyway");
-                    }
+                    PetLogger.debug(PetLogger.Category.SCAN, () -> "World save failed for first-time recovery, continuing anyway");
                 }
 
             } catch (Exception e) {
-                if (config.isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Exception during first-time recovery save, continuing anyway: " + e.getMessage());
-                }
+                PetLogger.debug(PetLogger.Category.SCAN, () -> "Exception during first-time recovery save, continuing anyway: " + e.getMessage());
                 // Don't let save errors prevent recovery
             }
         }
@@ -118,12 +133,20 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
 
     @Unique
     private void updatePetChunkTickets(ServerPlayerEntity player) {
-        if (!Config.getInstance().isChunkLoadingEnabled()) {
+        ConfigSnapshot config = Config.snapshot();
+        if (!config.isEnabled(ConfigSnapshot.CHUNK_LOADING)) {
+            // Nothing to renew or save while chunk loading is off
+            this.petChunkPositions.clear();
             return;
         }
 
+        int hysteresisBlocks = config.ticketHysteresisBlocks;
+        int hysteresisTicks = config.ticketHysteresisTicks;
+
         // Find all current pets that should load chunks
-        Map<UUID, ChunkPos> currentPets = new HashMap<>();
+        // Sitting pets never get here, so they hold no ticket at all
+        Map<UUID, PetTicketState> currentPets = new HashMap<>();
+        Map<UUID, Integer> ticketRadii = new HashMap<>();
 
         for (ServerWorld world : player.getEntityWorld().getServer().getWorlds()) {
             // Only check pets in the same dimension as player
@@ -139,22 +162,47 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
                         !pet.isLeashed() &&
                         !isIndependent(pet)) {
 
-                    currentPets.put(pet.getUuid(), pet.getChunkPos());
+                    PetTicketState state = this.petChunkPositions.get(pet.getUuid());
+                    if (state == null) {
+                        state = new PetTicketState(world.getRegistryKey(), pet.getChunkPos(), pet.getX(), pet.getZ());
+                    } else {
+                        state.update(pet.getX(), pet.getZ(), pet.getChunkPos(), player.age, hysteresisBlocks, hysteresisTicks);
+                    }
+                    currentPets.put(pet.getUuid(), state);
+
+                    // Far-behind pets only need to tick so they can teleport, and idle ones not even that
+                    boolean farBehind = pet.squaredDistanceTo(player) >= config.profileFor(pet).teleportDistanceSquared;
+                    ticketRadii.put(pet.getUuid(), farBehind ? config.farBehindChunkRadius
+                            : state.isMoving() ? config.activeChunkRadius : config.idleChunkRadius);
                 }
             }
         }
 
         // Add/renew tickets for current pets (like ender pearl system)
-        for (Map.Entry<UUID, ChunkPos> entry : currentPets.entrySet()) {
-            UUID petUUID = entry.getKey();
-            ChunkPos chunkPos = entry.getValue();
+        ServerWorld playerWorld = (ServerWorld) player.getEntityWorld();
+        for (Map.Entry<UUID, PetTicketState> entry : currentPets.entrySet()) {
+            PetTicketState state = entry.getValue();
+            int radius = ticketRadii.get(entry.getKey());
 
             // Add ticket with short expiry (like ender pearls)
-            ((ServerWorld) player.getEntityWorld()).getChunkManager().addTicket(
+            playerWorld.getChunkManager().addTicket(
                     PetChunkTickets.PET_TICKET_TYPE,
-                    chunkPos,
-                    Config.getInstance().getMaxChunkDistance()
+                    state.getCenter(),
+                    radius
             );
+
+            // While the center lags behind, make sure the pet's own chunk still gets the level it needs.
+            // The covering ticket stays on the center too, so a pet pacing over the border renews the
+            // same tickets instead of placing one on each chunk it steps into.
+            ChunkPos current = state.getCurrentChunk();
+            int offset = Math.max(Math.abs(current.x - state.getCenter().x), Math.abs(current.z - state.getCenter().z));
+            if (offset > 0 && offset > radius - PetChunkTickets.ENTITY_TICKING_RADIUS) {
+                playerWorld.getChunkManager().addTicket(
+                        PetChunkTickets.PET_TICKET_TYPE,
+                        state.getCenter(),
+                        Math.min(radius, PetChunkTickets.ENTITY_TICKING_RADIUS) + offset
+                );
+            }
         }
 
         // Update tracking
@@ -173,39 +221,38 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
 
     @Inject(method = "writeCustomData", at = @At("TAIL"))
     private void writePetData(WriteView view, CallbackInfo ci) {
-        ServerPlayerEntity player = (ServerPlayerEntity) (Object) this;
-
         // Save first-time recovery flag
         view.putBoolean("easypets_first_recovery_done", hasPerformedFirstTimeRecovery);
 
-        // Save pet chunk loading data like ender pearls
+        // Tracked pets are revalidated every second in updatePetChunkTickets, so saving only serializes them
         if (!this.petChunkPositions.isEmpty()) {
-            WriteView.ListView listView = view.getList("chunk_loading_pets");
-
-            for (Map.Entry<UUID, ChunkPos> entry : this.petChunkPositions.entrySet()) {
-                UUID petUUID = entry.getKey();
-                ChunkPos chunkPos = entry.getValue();
-
-                // Verify pet still exists and should be loading chunks
-                boolean shouldSave = false;
-                for (ServerWorld world : player.getEntityWorld().getServer().getWorlds()) {
-                    if (world.getEntity(petUUID) instanceof TameableEntity pet) {
-                        if (pet.isTamed() && pet.getOwner() == player &&
-                                !pet.isSitting() && !pet.isLeashed() && !isIndependent(pet)) {
-                            shouldSave = true;
-                            break;
-                        }
-                    }
-                }
+            Map<RegistryKey<World>, List<Map.Entry<UUID, PetTicketState>>> petsByWorld = new HashMap<>();
+            for (Map.Entry<UUID, PetTicketState> entry : this.petChunkPositions.entrySet()) {
+                petsByWorld.computeIfAbsent(entry.getValue().getWorld(), key -> new ArrayList<>()).add(entry);
+            }
 
-                if (shouldSave) {
-                    WriteView writeView = listView.add();
-                    writeView.putLong("pet_uuid_most", petUUID.getMostSignificantBits());
-                    writeView.putLong("pet_uuid_least", petUUID.getLeastSignificantBits());
-                    writeView.putInt("chunk_x", chunkPos.x);
-                    writeView.putInt("chunk_z", chunkPos.z);
-                    writeView.putString("world", player.getEntityWorld().getRegistryKey().getValue().toString());
+            WriteView.ListView listView = view.getList("easypets_pet_tickets");
+            for (Map.Entry<RegistryKey<World>, List<Map.Entry<UUID, PetTicketState>>> group : petsByWorld.entrySet()) {
+                List<Map.Entry<UUID, PetTicketState>> pets = group.getValue();
+                int[] uuids = new int[pets.size() * 4];
+                int[] chunks = new int[pets.size() * 2];
+
+                // Chunks are stored as deltas from the previous pet - pets following the same owner are close together
+                int previousX = 0, previousZ = 0;
+                for (int i = 0; i < pets.size(); i++) {
+                    System.arraycopy(Uuids.toIntArray(pets.get(i).getKey()), 0, uuids, i * 4, 4);
+
+                    ChunkPos chunkPos = pets.get(i).getValue().getCenter();
+                    chunks[i * 2] = chunkPos.x - previousX;
+                    chunks[i * 2 + 1] = chunkPos.z - previousZ;
+                    previousX = chunkPos.x;
+                    previousZ = chunkPos.z;
                 }
+
+                WriteView groupView = listView.add();
+                groupView.putString("world", group.getKey().getValue().toString());
+                groupView.putIntArray("pets", uuids);
+                groupView.putIntArray("chunks", chunks);
             }
         }
     }
@@ -222,49 +269,78 @@ public class ServerPlayerEntityMixin implements SimplePetTracker {
             justJoined = true;
             ticksSinceJoin = 0;
 
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Player " + player.getGameProfile().name() + " joining for first time with EasyPets");
-            }
+            PetLogger.debug(PetLogger.Category.SCAN, () -> "Player " + player.getGameProfile().name() + " joining for first time with EasyPets");
         }
 
         // Clear existing data
         this.petChunkPositions.clear();
 
-        // Read and restore pet chunk tickets like ender pearls
+        if (!Config.getInstance().isChunkLoadingEnabled()) {
+            return;
+        }
+
+        // Read and restore pet chunk tickets like ender pearls, one world at a time
+        view.getListReadView("easypets_pet_tickets").forEach(groupView -> {
+            String worldKey = groupView.getString("world", "");
+            int[] uuids = groupView.getOptionalIntArray("pets").orElse(new int[0]);
+            int[] chunks = groupView.getOptionalIntArray("chunks").orElse(new int[0]);
+            int count = Math.min(uuids.length / 4, chunks.length / 2);
+
+            ServerWorld world = findWorld(player, worldKey);
+            if (world == null || count == 0) {
+                return;
+            }
+
+            int chunkX = 0, chunkZ = 0;
+            for (int i = 0; i < count; i++) {
+                chunkX += chunks[i * 2];
+                chunkZ += chunks[i * 2 + 1];
+                restorePetTicket(world, Uuids.toUuid(Arrays.copyOfRange(uuids, i * 4, i * 4 + 4)), new ChunkPos(chunkX, chunkZ));
+            }
+
+            PetLogger.debug(PetLogger.Category.TICKETS, () -> "Restored " + count + " pet chunk tickets in " + worldKey);
+        });
+
+        // Players saved before the compact format still have one entry per pet
         view.getListReadView("chunk_loading_pets").forEach(petView -> {
-            long uuidMost = petView.getLong("pet_uuid_most", 0L);
-            long uuidLeast = petView.getLong("pet_uuid_least", 0L);
-            UUID petUUID = new UUID(uuidMost, uuidLeast);
-
-            int chunkX = petView.getInt("chunk_x", 0);
-            int chunkZ = petView.getInt("chunk_z", 0);
-            ChunkPos chunkPos = new ChunkPos(chunkX, chunkZ);
-
-            String worldKey = petView.getString("world", "");
-
-            // Find the correct world and immediately add ticket
-            for (ServerWorld world : player.getEntityWorld().getServer().getWorlds()) {
-                if (world.getRegistryKey().getValue().toString().equals(worldKey)) {
-                    // Immediately add chunk ticket like ender pearls do
-                    world.getChunkManager().addTicket(
-                            PetChunkTickets.PET_TICKET_TYPE,
-                            chunkPos,
-                            Config.getInstance().getMaxChunkDistance()
-                    );
-
-                    // Track this pet
-                    this.petChunkPositions.put(petUUID, chunkPos);
-
-                    if (Config.getInstance().isDebugLoggingEnabled()) {
-                        System.out.println("[EasyPets] Restored chunk ticket for pet " + petUUID + " at " + chunkPos + " in " + worldKey);
-                    }
-                    break;
-                }
+            UUID petUUID = new UUID(petView.getLong("pet_uuid_most", 0L), petView.getLong("pet_uuid_least", 0L));
+            ChunkPos chunkPos = new ChunkPos(petView.getInt("chunk_x", 0), petView.getInt("chunk_z", 0));
+
+            ServerWorld world = findWorld(player, petView.getString("world", ""));
+            if (world != null) {
+                restorePetTicket(world, petUUID, chunkPos);
             }
         });
     }
 
+    @Unique
+    private ServerWorld findWorld(ServerPlayerEntity player, String worldKey) {
+        Identifier id = Identifier.tryParse(worldKey);
+        if (id == null) {
+            return null;
+        }
+        return player.getEntityWorld().getServer().getWorld(RegistryKey.of(RegistryKeys.WORLD, id));
+    }
+
+    @Unique
+    private void restorePetTicket(ServerWorld world, UUID petUUID, ChunkPos chunkPos) {
+        // Immediately add chunk ticket like ender pearls do
+        world.getChunkManager().addTicket(
+                PetChunkTickets.PET_TICKET_TYPE,
+                chunkPos,
+                Config.getInstance().getMaxChunkDistance()
+        );
+
+        // Track this pet
+        this.petChunkPositions.put(petUUID, new PetTicketState(world.getRegistryKey(), chunkPos));
+    }
+
     // Interface implementation
+    @Override
+    public OwnerMotionTracker getOwnerMotion() {
+        return this.ownerMotion;
+    }
+
     @Override
     public void addChunkLoadingPet(UUID petUUID) {
         // Not used in this system - player manages everything
@@ -0,0 +1,31 @@
+package org.tecna.easypets.mixin;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.function.BooleanBiFunction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.tecna.easypets.FollowPathCache;
+
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin {
+
+    @Inject(method = "updateListeners", at = @At("HEAD"))
+    private void onBlockUpdate(BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+        // Same check vanilla uses to make mobs repath: only a changed collision shape can block a path.
+        // Power levels, crop growth and the like change the state but not the shape.
+        if (oldState == newState) return;
+
+        ServerWorld world = (ServerWorld) (Object) this;
+        VoxelShape oldShape = oldState.getCollisionShape(world, pos);
+        VoxelShape newShape = newState.getCollisionShape(world, pos);
+        if (VoxelShapes.matchesAnywhere(oldShape, newShape, BooleanBiFunction.NOT_SAME)) {
+            FollowPathCache.onBlockChanged(world, pos);
+        }
+    }
+}
@@ -1,22 +1,26 @@
 package org.tecna.easypets.mixin;
 
-import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.passive.TameableEntity;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.storage.ReadView;
+import net.minecraft.storage.WriteView;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.tecna.easypets.PetNaturalRegen;
 import org.tecna.easypets.SimplePetTracker;
 
-@Mixin(LivingEntity.class)
+@Mixin(TameableEntity.class)
 public class TameableEntityMixin {
 
     @Inject(method = "onDeath", at = @At("HEAD"))
-    private void onEntityDeath(CallbackInfo ci) {
-        LivingEntity entity = (LivingEntity) (Object) this;
+    private void onEntityDeath(DamageSource damageSource, CallbackInfo ci) {
+        TameableEntity pet = (TameableEntity) (Object) this;
 
-        if (entity instanceof TameableEntity pet && pet.getOwner() instanceof ServerPlayerEntity owner) {
+        if (pet.getOwner() instanceof ServerPlayerEntity owner) {
             // Just remove from player's tracking - tickets will auto-expire
             if (owner instanceof SimplePetTracker tracker) {
                 tracker.removeChunkLoadingPet(pet.getUuid());
@@ -24,5 +28,26 @@ public class TameableEntityMixin {
         }
     }
 
+    // Game times let pets catch up on regen they missed while unloaded
+    @Inject(method = "writeCustomData", at = @At("TAIL"))
+    private void writeRegenData(WriteView view, CallbackInfo ci) {
+        TameableEntity pet = (TameableEntity) (Object) this;
+
+        if (pet.isTamed() && pet.getEntityWorld() instanceof ServerWorld world) {
+            view.putLong("easypets_last_damage_time", PetNaturalRegen.getLastDamageTime(pet));
+            view.putLong("easypets_last_update_time", world.getTime());
+        }
+    }
+
+    @Inject(method = "readCustomData", at = @At("TAIL"))
+    private void readRegenData(ReadView view, CallbackInfo ci) {
+        TameableEntity pet = (TameableEntity) (Object) this;
+
+        if (pet.isTamed() && pet.getEntityWorld() instanceof ServerWorld) {
+            view.getOptionalLong("easypets_last_update_time").ifPresent(lastUpdateTime ->
+                    PetNaturalRegen.restoreTimes(pet, view.getLong("easypets_last_damage_time", 0L), lastUpdateTime));
+        }
+    }
+
     // No more tick injection - player handles everything!
 }
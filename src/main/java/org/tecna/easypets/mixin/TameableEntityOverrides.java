@@ -2,9 +2,12 @@ package org.tecna.easypets.mixin;
 
 import net.minecraft.entity.passive.TameableEntity;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.tecna.easypets.PetRecoveryTickets;
 import org.tecna.easypets.config.Config;
 
 @Mixin(TameableEntity.class)
@@ -15,12 +18,34 @@ public class TameableEntityOverrides {
         TameableEntity pet = (TameableEntity) (Object) this;
 
         if (pet.getOwner() != null) {
-            Config config = Config.getInstance();
-            double configuredDistance = config.getTeleportDistanceSquared();
+            double configuredDistance = Config.snapshot().profileFor(pet).teleportDistanceSquared;
 
             // Use configured distance instead of vanilla hardcoded 144.0 (12^2)
             boolean shouldTeleport = pet.squaredDistanceTo(pet.getOwner()) >= configuredDistance;
             cir.setReturnValue(shouldTeleport);
         }
     }
-}
\ No newline at end of file
+
+    // Where the pet stood before tryTeleportToOwner, to tell whether it actually moved
+    @Unique
+    private double teleportFromX, teleportFromY, teleportFromZ;
+
+    @Inject(method = "tryTeleportToOwner", at = @At("HEAD"))
+    private void beforeTeleportToOwner(CallbackInfo ci) {
+        TameableEntity pet = (TameableEntity) (Object) this;
+        teleportFromX = pet.getX();
+        teleportFromY = pet.getY();
+        teleportFromZ = pet.getZ();
+    }
+
+    @Inject(method = "tryTeleportToOwner", at = @At("TAIL"))
+    private void onTeleportToOwner(CallbackInfo ci) {
+        TameableEntity pet = (TameableEntity) (Object) this;
+
+        // Vanilla gives up without moving when there's no safe spot near the owner
+        if (pet.getX() == teleportFromX && pet.getY() == teleportFromY && pet.getZ() == teleportFromZ) return;
+
+        // Lets /petrecovery release the pet's chunk as soon as it has reached its owner
+        PetRecoveryTickets.onPetTeleported(pet);
+    }
+}
@@ -11,7 +11,6 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
-import org.tecna.easypets.config.Config;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -111,9 +110,7 @@ public class PerPlayerGlowManager {
             // Apply glow effects to pets (per-player packets)
             applyGlowEffects();
             
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Started per-player glow session for " + player.getGameProfile().name() + " with " + glowingPets.size() + " pets");
-            }
+            PetLogger.debug(PetLogger.Category.GLOW, () -> "Started per-player glow session for " + player.getGameProfile().name() + " with " + glowingPets.size() + " pets");
         }
         
         public void updatePetStates(Map<Entity, String> newStates) {
@@ -162,9 +159,7 @@ public class PerPlayerGlowManager {
             // Remove real teams from server
             cleanupRealTeams();
             
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Cleaned up per-player glow session for " + player.getGameProfile().name());
-            }
+            PetLogger.debug(PetLogger.Category.GLOW, () -> "Cleaned up per-player glow session for " + player.getGameProfile().name());
         }
         
         private void createRealTeams() {
@@ -221,9 +216,7 @@ public class PerPlayerGlowManager {
                         scoreboard.removeScoreHolderFromTeam(entityId, currentTeam);
                     } catch (Exception e) {
                         // Ignore errors - entity might not actually be on the team
-                        if (Config.getInstance().isDebugLoggingEnabled()) {
-                            System.out.println("[EasyPets] Could not remove " + entityId + " from team " + currentTeam.getName() + ": " + e.getMessage());
-                        }
+                        PetLogger.debug(PetLogger.Category.GLOW, () -> "Could not remove " + entityId + " from team " + currentTeam.getName() + ": " + e.getMessage());
                     }
                 }
             }
@@ -246,9 +239,7 @@ public class PerPlayerGlowManager {
                     try {
                         scoreboard.removeScoreHolderFromTeam(entityId, currentTeam);
                     } catch (Exception e) {
-                        if (Config.getInstance().isDebugLoggingEnabled()) {
-                            System.out.println("[EasyPets] Could not remove " + entityId + " from current team: " + e.getMessage());
-                        }
+                        PetLogger.debug(PetLogger.Category.GLOW, () -> "Could not remove " + entityId + " from current team: " + e.getMessage());
                     }
                 }
                 
@@ -256,9 +247,7 @@ public class PerPlayerGlowManager {
                 scoreboard.addScoreHolderToTeam(entityId, newTeam);
                 
             } catch (Exception e) {
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Failed to assign " + entityId + " to team " + newTeam.getName() + ": " + e.getMessage());
-                }
+                PetLogger.debug(PetLogger.Category.GLOW, () -> "Failed to assign " + entityId + " to team " + newTeam.getName() + ": " + e.getMessage());
             }
         }
         
@@ -318,9 +307,7 @@ public class PerPlayerGlowManager {
                 player.networkHandler.sendPacket(metadataPacket);
                 
             } catch (Exception e) {
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Failed to apply glow effect via packet: " + e.getMessage());
-                }
+                PetLogger.debug(PetLogger.Category.GLOW, () -> "Failed to apply glow effect via packet: " + e.getMessage());
             }
         }
         
@@ -349,9 +336,7 @@ public class PerPlayerGlowManager {
                 player.networkHandler.sendPacket(metadataPacket);
                 
             } catch (Exception e) {
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Failed to remove glow effect via packet: " + e.getMessage());
-                }
+                PetLogger.debug(PetLogger.Category.GLOW, () -> "Failed to remove glow effect via packet: " + e.getMessage());
             }
         }
         
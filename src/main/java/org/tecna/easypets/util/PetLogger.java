@@ -0,0 +1,257 @@
+package org.tecna.easypets.util;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.tecna.easypets.config.Config;
+import org.tecna.easypets.config.ConfigSnapshot;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Debug logging that never blocks the server thread.
+ * Messages are only built when their category is enabled, then handed to a lock-free ring buffer
+ * that a background thread drains into logs/easypets-debug.log. If the buffer is full the
+ * message is dropped and counted instead of waiting.
+ */
+public class PetLogger {
+
+    public enum Category {
+        REGEN("regen"),
+        TICKETS("tickets"),
+        SCAN("scan"),
+        GLOW("glow"),
+        WHITELIST("whitelist"),
+        GENERAL("general");
+
+        public final String id;
+        public final int bit;
+
+        Category(String id) {
+            this.id = id;
+            this.bit = 1 << ordinal();
+        }
+
+        public static Category byId(String id) {
+            for (Category category : values()) {
+                if (category.id.equals(id)) return category;
+            }
+            return null;
+        }
+    }
+
+    public static final int ALL_CATEGORIES = (1 << Category.values().length) - 1;
+
+    private static final int CAPACITY = 8192; // Must be a power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+    private static final int KEPT_FILES = 3;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private static final AtomicReferenceArray<Entry> buffer = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong head = new AtomicLong(); // Next slot producers claim
+    private static volatile long tail = 0; // Next slot the writer reads, only written by the writer
+    private static final AtomicLong droppedMessages = new AtomicLong();
+
+    private static volatile Thread writerThread;
+    private static volatile boolean running = false;
+
+    /**
+     * Whether debug messages for a category would be logged
+     */
+    public static boolean isDebugEnabled(Category category) {
+        ConfigSnapshot config = Config.snapshot();
+        return config.isEnabled(ConfigSnapshot.DEBUG_LOGGING) && (config.debugLogCategories & category.bit) != 0;
+    }
+
+    public static void debug(Category category, Supplier<String> message) {
+        if (isDebugEnabled(category)) {
+            offer(new Entry(category, message.get(), null));
+        }
+    }
+
+    public static void debug(Category category, Supplier<String> message, Throwable error) {
+        if (isDebugEnabled(category)) {
+            offer(new Entry(category, message.get(), error));
+        }
+    }
+
+    public static long getDroppedMessageCount() {
+        return droppedMessages.get();
+    }
+
+    public static synchronized void start() {
+        if (running) return;
+        running = true;
+
+        Thread thread = new Thread(PetLogger::runWriter, "EasyPets-Logger");
+        thread.setDaemon(true);
+        thread.start();
+        writerThread = thread;
+    }
+
+    /**
+     * Stop the writer after it has written everything already queued
+     */
+    public static synchronized void stop() {
+        Thread thread = writerThread;
+        if (!running || thread == null) return;
+
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    private static void offer(Entry entry) {
+        while (true) {
+            long claimed = head.get();
+            if (claimed - tail >= CAPACITY) {
+                droppedMessages.incrementAndGet();
+                return;
+            }
+            if (head.compareAndSet(claimed, claimed + 1)) {
+                buffer.set((int) (claimed & MASK), entry);
+                return;
+            }
+        }
+    }
+
+    private static void runWriter() {
+        Path logPath = FabricLoader.getInstance().getGameDir().resolve("logs").resolve("easypets-debug.log");
+        long reportedDrops = 0;
+
+        while (true) {
+            boolean stopping = !running;
+
+            try {
+                long drops = droppedMessages.get();
+                if (head.get() != tail || drops != reportedDrops) {
+                    Files.createDirectories(logPath.getParent());
+                    rotateIfNeeded(logPath);
+
+                    try (BufferedWriter writer = Files.newBufferedWriter(logPath, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                        if (drops != reportedDrops) {
+                            writer.write("[" + LocalTime.now().format(TIME_FORMAT) + "] Dropped " +
+                                    (drops - reportedDrops) + " messages - log buffer was full");
+                            writer.newLine();
+                            reportedDrops = drops;
+                        }
+                        drain(writer);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("[EasyPets] Failed to write debug log: " + e.getMessage());
+            }
+
+            if (stopping) return;
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+    }
+
+    private static void drain(BufferedWriter writer) throws IOException {
+        long next = tail;
+        while (next < head.get()) {
+            int index = (int) (next & MASK);
+            Entry entry = buffer.get(index);
+            if (entry == null) break; // Claimed but not published yet - pick it up next time
+
+            buffer.set(index, null);
+            tail = ++next;
+
+            writer.write(entry.format());
+            writer.newLine();
+        }
+    }
+
+    private static void rotateIfNeeded(Path logPath) throws IOException {
+        if (!Files.exists(logPath) || Files.size(logPath) < MAX_FILE_BYTES) return;
+
+        Path directory = logPath.getParent();
+        Files.deleteIfExists(directory.resolve("easypets-debug." + KEPT_FILES + ".log"));
+        for (int i = KEPT_FILES - 1; i >= 1; i--) {
+            Path older = directory.resolve("easypets-debug." + i + ".log");
+            if (Files.exists(older)) {
+                Files.move(older, directory.resolve("easypets-debug." + (i + 1) + ".log"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(logPath, directory.resolve("easypets-debug.1.log"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static class Entry {
+        final long timeMillis = System.currentTimeMillis();
+        final Category category;
+        final String message;
+        final Throwable error;
+
+        Entry(Category category, String message, Throwable error) {
+            this.category = category;
+            this.message = message;
+            this.error = error;
+        }
+
+        String format() {
+            String time = LocalTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault()).format(TIME_FORMAT);
+            String line = "[" + time + "] [" + category.id + "] " + message;
+            if (error == null) return line;
+
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            return line + System.lineSeparator() + trace.toString().stripTrailing();
+        }
+    }
+
+    /**
+     * Whether every entry in a comma separated category list is a known category or "all"
+     */
+    public static boolean isValidCategoryList(String value) {
+        if (value == null || value.isBlank()) return false;
+
+        for (String part : value.toLowerCase(Locale.ROOT).split(",")) {
+            String id = part.trim();
+            if (!id.equals("all") && Category.byId(id) == null) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse a comma separated category list into a bitmask. "all" enables every category
+     */
+    public static int parseCategories(String value) {
+        if (value == null) return ALL_CATEGORIES;
+
+        int mask = 0;
+        for (String part : value.toLowerCase(Locale.ROOT).split(",")) {
+            String id = part.trim();
+            if (id.equals("all")) return ALL_CATEGORIES;
+
+            Category category = Category.byId(id);
+            if (category != null) {
+                mask |= category.bit;
+            }
+        }
+        return mask;
+    }
+}
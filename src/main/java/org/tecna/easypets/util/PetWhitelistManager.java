@@ -1,41 +1,119 @@
 package org.tecna.easypets.util;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityType;
 import net.minecraft.registry.Registries;
-import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.util.Identifier;
-import org.tecna.easypets.config.Config;
 
-import java.io.IOException;
-import java.lang.reflect.Type;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 public class PetWhitelistManager {
-    private static final String WHITELIST_FILE_NAME = "easypets_whitelist.json";
+    private static final int EVICTION_CHECK_INTERVAL_TICKS = 1200;
+    private static final int PRUNE_INTERVAL_TICKS = 1200;
+    private static final int EVICT_AFTER_OFFLINE_TICKS = 10 * 60 * 20; // 10 minutes
     private static PetWhitelistManager INSTANCE;
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
-    // Map from player UUID to their whitelist data
-    private final Map<UUID, PlayerWhitelistData> playerWhitelists = new ConcurrentHashMap<>();
+    // Map from player UUID to the current snapshot of their whitelist, only for owners that are online or were recently
+    private final Map<UUID, WhitelistSnapshot> playerWhitelists = new ConcurrentHashMap<>();
+    // Shards being read in the background. Added on the server thread, removed by the storage thread once read.
+    private final Map<UUID, CompletableFuture<WhitelistSnapshot>> loading = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> offlineSinceTick = new HashMap<>();
+    // Each owner's whitelist is its own file, read when needed and written in the background
+    private final WhitelistStorage storage = new WhitelistStorage(FabricLoader.getInstance().getConfigDir());
 
+    // Named whitelists owners can subscribe to, all kept loaded
+    private final Map<String, WhitelistGroup> groups = new ConcurrentHashMap<>();
+    // An owner's own entries merged with their groups', built on first use after a change
+    private final Map<UUID, WhitelistSnapshot> effectiveWhitelists = new ConcurrentHashMap<>();
+    // Owners whose merged whitelist includes a group, so a group change only drops those. Server thread only.
+    private final Map<String, Set<UUID>> mergedSubscribers = new HashMap<>();
+
+    // Whitelisted entities, of any owner or group, that died or despawned since the last prune. Server thread only.
+    private Set<UUID> destroyedEntities = new HashSet<>();
+    private long prunedEntries = 0;
+
+    /**
+     * An owner's whitelist as stored in their file
+     */
     public static class PlayerWhitelistData {
         public Set<UUID> whitelistedPlayers = new HashSet<>();
         public Set<String> whitelistedEntityTypes = new HashSet<>();
         public Set<UUID> whitelistedEntityUUIDs = new HashSet<>();
-        
+        public Map<UUID, Long> entityUUIDExpiry = new HashMap<>(); // Epoch millis, only for entries that expire
+        public Set<String> subscribedGroups = new HashSet<>();
+
         public PlayerWhitelistData() {}
     }
 
+    /**
+     * A whitelist group as stored in groups.json
+     */
+    public static class GroupData {
+        public UUID creator;
+        public Set<UUID> whitelistedPlayers = new HashSet<>();
+        public Set<String> whitelistedEntityTypes = new HashSet<>();
+        public Set<UUID> whitelistedEntityUUIDs = new HashSet<>();
+
+        public GroupData() {}
+    }
+
+    /**
+     * A named whitelist shared by every owner subscribed to it. Only its creator and operators can change it.
+     */
+    public record WhitelistGroup(String name, UUID creator, WhitelistSnapshot entries) {
+        WhitelistGroup withEntries(WhitelistSnapshot entries) {
+            return new WhitelistGroup(name, creator, entries);
+        }
+    }
+
     private PetWhitelistManager() {
-        loadWhitelists();
+        for (Map.Entry<String, GroupData> entry : storage.loadGroups().entrySet()) {
+            groups.put(entry.getKey(), new WhitelistGroup(entry.getKey(), entry.getValue().creator, WhitelistSnapshot.of(entry.getValue())));
+        }
+    }
+
+    public static void initialize() {
+        // Start reading an owner's whitelist as they join, so it is there before their pets target anything
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> getInstance().requestLoad(handler.getPlayer().getUuid()));
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (INSTANCE != null && server.getTicks() % EVICTION_CHECK_INTERVAL_TICKS == 0) {
+                INSTANCE.evictOfflineOwners(server);
+            }
+            if (INSTANCE != null && server.getTicks() % PRUNE_INTERVAL_TICKS == 0) {
+                INSTANCE.pruneStaleEntities(server);
+            }
+        });
+
+        // Killed or despawned, not just unloaded with its chunk - covers deaths too, which remove the entity as KILLED
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            if (INSTANCE == null || entity.getRemovalReason() == null || !entity.getRemovalReason().shouldDestroy()) return;
+
+            UUID entityUUID = entity.getUuid();
+            if (INSTANCE.storage.isWhitelistedEntity(entityUUID) || INSTANCE.isGroupEntity(entityUUID)) {
+                INSTANCE.destroyedEntities.add(entityUUID);
+            }
+        });
+
+        // Whitelist changes are journaled in the background, so write them out before the game exits,
+        // along with the entities that died since the last prune
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            if (INSTANCE != null && !INSTANCE.destroyedEntities.isEmpty()) {
+                INSTANCE.removeFromGroups(INSTANCE.destroyedEntities);
+                INSTANCE.storage.removeEntities(INSTANCE.destroyedEntities);
+                INSTANCE.destroyedEntities = new HashSet<>();
+            }
+            flush();
+        });
     }
 
     public static PetWhitelistManager getInstance() {
@@ -49,34 +127,26 @@ public class PetWhitelistManager {
      * Check if an entity is whitelisted for a specific player's pets
      */
     public boolean isWhitelisted(UUID petOwnerUUID, Entity target) {
-        PlayerWhitelistData data = playerWhitelists.get(petOwnerUUID);
-        if (data == null) {
-            return false;
-        }
-
-        // Check if target is a whitelisted player
-        if (target instanceof ServerPlayerEntity player) {
-            return data.whitelistedPlayers.contains(player.getUuid());
-        }
-
-        // Check if this specific entity UUID is whitelisted
-        if (data.whitelistedEntityUUIDs.contains(target.getUuid())) {
-            return true;
+        WhitelistSnapshot effective = effectiveWhitelists.get(petOwnerUUID);
+        if (effective == null) {
+            WhitelistSnapshot snapshot = playerWhitelists.get(petOwnerUUID);
+            if (snapshot == null) {
+                // Pets of an owner who isn't loaded yet attack as usual until their whitelist has been read
+                requestLoad(petOwnerUUID);
+                return false;
+            }
+            effective = resolve(petOwnerUUID, snapshot);
         }
-
-        // Check if target's entity type is whitelisted
-        String entityTypeId = Registries.ENTITY_TYPE.getId(target.getType()).toString();
-        return data.whitelistedEntityTypes.contains(entityTypeId);
+        return effective.matches(target);
     }
 
     /**
      * Add a player to the whitelist
      */
     public boolean addPlayerToWhitelist(UUID ownerUUID, UUID targetPlayerUUID, String targetPlayerName) {
-        PlayerWhitelistData data = playerWhitelists.computeIfAbsent(ownerUUID, k -> new PlayerWhitelistData());
-        boolean added = data.whitelistedPlayers.add(targetPlayerUUID);
+        boolean added = update(ownerUUID, snapshot -> snapshot.withPlayer(targetPlayerUUID, true));
         if (added) {
-            saveWhitelists();
+            record(WhitelistStorage.ADD, ownerUUID, WhitelistStorage.PLAYER, targetPlayerUUID.toString());
         }
         return added;
     }
@@ -85,13 +155,9 @@ public class PetWhitelistManager {
      * Remove a player from the whitelist
      */
     public boolean removePlayerFromWhitelist(UUID ownerUUID, UUID targetPlayerUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        if (data == null) {
-            return false;
-        }
-        boolean removed = data.whitelistedPlayers.remove(targetPlayerUUID);
+        boolean removed = update(ownerUUID, snapshot -> snapshot.withPlayer(targetPlayerUUID, false));
         if (removed) {
-            saveWhitelists();
+            record(WhitelistStorage.REMOVE, ownerUUID, WhitelistStorage.PLAYER, targetPlayerUUID.toString());
         }
         return removed;
     }
@@ -106,10 +172,9 @@ public class PetWhitelistManager {
             return false;
         }
 
-        PlayerWhitelistData data = playerWhitelists.computeIfAbsent(ownerUUID, k -> new PlayerWhitelistData());
-        boolean added = data.whitelistedEntityTypes.add(entityTypeId);
+        boolean added = update(ownerUUID, snapshot -> snapshot.withEntityType(entityTypeId, true));
         if (added) {
-            saveWhitelists();
+            record(WhitelistStorage.ADD, ownerUUID, WhitelistStorage.ENTITY_TYPE, entityTypeId);
         }
         return added;
     }
@@ -118,10 +183,26 @@ public class PetWhitelistManager {
      * Add an individual entity UUID to the whitelist
      */
     public boolean addEntityUUIDToWhitelist(UUID ownerUUID, UUID entityUUID) {
-        PlayerWhitelistData data = playerWhitelists.computeIfAbsent(ownerUUID, k -> new PlayerWhitelistData());
-        boolean added = data.whitelistedEntityUUIDs.add(entityUUID);
+        boolean added = update(ownerUUID, snapshot -> snapshot.withEntityUUID(entityUUID, true));
         if (added) {
-            saveWhitelists();
+            record(WhitelistStorage.ADD, ownerUUID, WhitelistStorage.ENTITY, entityUUID.toString());
+        }
+        return added;
+    }
+
+    /**
+     * Add an individual entity UUID to the whitelist for a limited time
+     * @param expiryMinutes minutes until the entry is removed again, 0 to keep it
+     */
+    public boolean addEntityUUIDToWhitelist(UUID ownerUUID, UUID entityUUID, int expiryMinutes) {
+        if (expiryMinutes <= 0) {
+            return addEntityUUIDToWhitelist(ownerUUID, entityUUID);
+        }
+
+        long expiresAt = System.currentTimeMillis() + expiryMinutes * 60_000L;
+        boolean added = update(ownerUUID, snapshot -> snapshot.withExpiringEntityUUID(entityUUID, expiresAt));
+        if (added) {
+            storage.record(new WhitelistStorage.Change(WhitelistStorage.ADD, ownerUUID.toString(), WhitelistStorage.ENTITY, entityUUID.toString(), expiresAt));
         }
         return added;
     }
@@ -130,13 +211,9 @@ public class PetWhitelistManager {
      * Remove an individual entity UUID from the whitelist
      */
     public boolean removeEntityUUIDFromWhitelist(UUID ownerUUID, UUID entityUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        if (data == null) {
-            return false;
-        }
-        boolean removed = data.whitelistedEntityUUIDs.remove(entityUUID);
+        boolean removed = update(ownerUUID, snapshot -> snapshot.withEntityUUID(entityUUID, false));
         if (removed) {
-            saveWhitelists();
+            record(WhitelistStorage.REMOVE, ownerUUID, WhitelistStorage.ENTITY, entityUUID.toString());
         }
         return removed;
     }
@@ -145,118 +222,371 @@ public class PetWhitelistManager {
      * Remove an entity type from the whitelist
      */
     public boolean removeEntityTypeFromWhitelist(UUID ownerUUID, String entityTypeId) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        if (data == null) {
-            return false;
-        }
-        boolean removed = data.whitelistedEntityTypes.remove(entityTypeId);
+        boolean removed = update(ownerUUID, snapshot -> snapshot.withEntityType(entityTypeId, false));
         if (removed) {
-            saveWhitelists();
+            record(WhitelistStorage.REMOVE, ownerUUID, WhitelistStorage.ENTITY_TYPE, entityTypeId);
         }
         return removed;
     }
 
     /**
-     * Get whitelisted players for a specific owner
+     * Get whitelisted players for a specific owner. Like the other getters this returns the
+     * current snapshot's set, which can't be modified and doesn't change with the whitelist.
      */
     public Set<UUID> getWhitelistedPlayers(UUID ownerUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        return data != null ? new HashSet<>(data.whitelistedPlayers) : new HashSet<>();
+        return loaded(ownerUUID).players();
     }
 
     /**
      * Get whitelisted entity types for a specific owner
      */
     public Set<String> getWhitelistedEntityTypes(UUID ownerUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        return data != null ? new HashSet<>(data.whitelistedEntityTypes) : new HashSet<>();
+        return loaded(ownerUUID).entityTypes();
     }
 
     /**
      * Get whitelisted specific entity UUIDs for a specific owner
      */
     public Set<UUID> getWhitelistedEntityUUIDs(UUID ownerUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        return data != null ? new HashSet<>(data.whitelistedEntityUUIDs) : new HashSet<>();
+        return loaded(ownerUUID).entityUUIDs();
     }
 
     /**
      * Clear all whitelist entries for a player
      */
     public void clearWhitelist(UUID ownerUUID) {
-        playerWhitelists.remove(ownerUUID);
-        saveWhitelists();
+        playerWhitelists.put(ownerUUID, WhitelistSnapshot.EMPTY);
+        effectiveWhitelists.remove(ownerUUID);
+        storage.record(new WhitelistStorage.Change(WhitelistStorage.CLEAR, ownerUUID.toString(), null, null, null));
     }
 
     /**
      * Get total number of whitelisted entries for a player
      */
     public int getTotalWhitelistCount(UUID ownerUUID) {
-        PlayerWhitelistData data = playerWhitelists.get(ownerUUID);
-        if (data == null) {
-            return 0;
+        return loaded(ownerUUID).size();
+    }
+
+    /**
+     * Subscribe an owner's pets to a group's whitelist
+     * @return false if the group doesn't exist or the owner already follows it
+     */
+    public boolean subscribeToGroup(UUID ownerUUID, String groupName) {
+        if (!groups.containsKey(groupName)) {
+            return false;
         }
-        return data.whitelistedPlayers.size() + data.whitelistedEntityTypes.size() + data.whitelistedEntityUUIDs.size();
-    }
-
-    private void loadWhitelists() {
-        Path whitelistPath = FabricLoader.getInstance().getConfigDir().resolve(WHITELIST_FILE_NAME);
-
-        if (Files.exists(whitelistPath)) {
-            try {
-                String json = Files.readString(whitelistPath);
-                Type type = new TypeToken<Map<String, PlayerWhitelistData>>(){}.getType();
-                Map<String, PlayerWhitelistData> rawData = GSON.fromJson(json, type);
-                
-                if (rawData != null) {
-                    // Convert string UUIDs back to UUID keys
-                    playerWhitelists.clear();
-                    for (Map.Entry<String, PlayerWhitelistData> entry : rawData.entrySet()) {
-                        try {
-                            UUID playerUUID = UUID.fromString(entry.getKey());
-                            playerWhitelists.put(playerUUID, entry.getValue());
-                        } catch (IllegalArgumentException e) {
-                            if (Config.getInstance().isDebugLoggingEnabled()) {
-                                System.err.println("[EasyPets] Invalid UUID in whitelist file: " + entry.getKey());
-                            }
-                        }
-                    }
-                }
 
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    System.out.println("[EasyPets] Loaded pet whitelist for " + playerWhitelists.size() + " players");
-                }
-            } catch (Exception e) {
-                System.err.println("[EasyPets] Failed to load pet whitelist: " + e.getMessage());
-                if (Config.getInstance().isDebugLoggingEnabled()) {
-                    e.printStackTrace();
+        boolean subscribed = update(ownerUUID, snapshot -> snapshot.withGroup(groupName, true));
+        if (subscribed) {
+            record(WhitelistStorage.ADD, ownerUUID, WhitelistStorage.GROUP, groupName);
+        }
+        return subscribed;
+    }
+
+    public boolean unsubscribeFromGroup(UUID ownerUUID, String groupName) {
+        boolean unsubscribed = update(ownerUUID, snapshot -> snapshot.withGroup(groupName, false));
+        if (unsubscribed) {
+            record(WhitelistStorage.REMOVE, ownerUUID, WhitelistStorage.GROUP, groupName);
+        }
+        return unsubscribed;
+    }
+
+    /**
+     * Get the groups an owner is subscribed to, including ones that have since been deleted
+     */
+    public Set<String> getSubscribedGroups(UUID ownerUUID) {
+        return loaded(ownerUUID).groups();
+    }
+
+    /**
+     * @return false if a group with that name already exists
+     */
+    public boolean createGroup(String groupName, UUID creatorUUID) {
+        boolean created = groups.putIfAbsent(groupName, new WhitelistGroup(groupName, creatorUUID, WhitelistSnapshot.EMPTY)) == null;
+        if (created) {
+            onGroupChanged(groupName);
+        }
+        return created;
+    }
+
+    public boolean deleteGroup(String groupName) {
+        boolean deleted = groups.remove(groupName) != null;
+        if (deleted) {
+            onGroupChanged(groupName);
+        }
+        return deleted;
+    }
+
+    public WhitelistGroup getGroup(String groupName) {
+        return groups.get(groupName);
+    }
+
+    public Collection<WhitelistGroup> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+
+    public boolean setGroupPlayer(String groupName, UUID playerUUID, boolean whitelisted) {
+        return updateGroup(groupName, entries -> entries.withPlayer(playerUUID, whitelisted));
+    }
+
+    public boolean setGroupEntityType(String groupName, String entityTypeId, boolean whitelisted) {
+        return updateGroup(groupName, entries -> entries.withEntityType(entityTypeId, whitelisted));
+    }
+
+    public boolean setGroupEntityUUID(String groupName, UUID entityUUID, boolean whitelisted) {
+        return updateGroup(groupName, entries -> entries.withEntityUUID(entityUUID, whitelisted));
+    }
+
+    /**
+     * Swap in a changed copy of a group's entries, the same way as for owners
+     * @return false if the group doesn't exist or the change left it as it was
+     */
+    private boolean updateGroup(String groupName, UnaryOperator<WhitelistSnapshot> change) {
+        while (true) {
+            WhitelistGroup current = groups.get(groupName);
+            if (current == null) return false;
+
+            WhitelistSnapshot updated = change.apply(current.entries());
+            if (updated == current.entries()) return false;
+
+            if (groups.replace(groupName, current, current.withEntries(updated))) {
+                onGroupChanged(groupName);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop the merged whitelists built from this group and write the groups out
+     */
+    private void onGroupChanged(String groupName) {
+        Set<UUID> subscribers = mergedSubscribers.remove(groupName);
+        if (subscribers != null) {
+            for (UUID ownerUUID : subscribers) {
+                effectiveWhitelists.remove(ownerUUID);
+            }
+        }
+
+        Map<String, GroupData> saved = new HashMap<>();
+        for (WhitelistGroup group : groups.values()) {
+            GroupData data = new GroupData();
+            data.creator = group.creator();
+            data.whitelistedPlayers = new HashSet<>(group.entries().players());
+            data.whitelistedEntityTypes = new HashSet<>(group.entries().entityTypes());
+            data.whitelistedEntityUUIDs = new HashSet<>(group.entries().entityUUIDs());
+            saved.put(group.name(), data);
+        }
+        storage.saveGroups(saved);
+
+        int invalidated = subscribers != null ? subscribers.size() : 0;
+        PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Whitelist group " + groupName + " changed, rebuilding " + invalidated + " merged whitelists");
+    }
+
+    /**
+     * Write any journaled changes to the whitelist files, for server shutdown
+     */
+    public static void flush() {
+        if (INSTANCE != null) {
+            INSTANCE.storage.flush();
+        }
+    }
+
+    /**
+     * Swap in a changed snapshot of the owner's whitelist
+     * @return false if the change left the whitelist as it was
+     */
+    private boolean update(UUID ownerUUID, UnaryOperator<WhitelistSnapshot> change) {
+        while (true) {
+            WhitelistSnapshot current = loaded(ownerUUID);
+            WhitelistSnapshot updated = change.apply(current);
+            if (updated == current) return false;
+
+            // Fails if another thread swapped first or the owner was just unloaded - start over from what is there now
+            if (playerWhitelists.replace(ownerUUID, current, updated)) {
+                effectiveWhitelists.remove(ownerUUID);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Merge the owner's entries with those of their groups and cache the result until either changes
+     */
+    private WhitelistSnapshot resolve(UUID ownerUUID, WhitelistSnapshot snapshot) {
+        List<WhitelistSnapshot> groupEntries = new ArrayList<>(snapshot.groups().size());
+        for (String groupName : snapshot.groups()) {
+            // Subscriptions to deleted groups stay in the file but match nothing until the group is created again
+            mergedSubscribers.computeIfAbsent(groupName, k -> new HashSet<>()).add(ownerUUID);
+            WhitelistGroup group = groups.get(groupName);
+            if (group != null) {
+                groupEntries.add(group.entries());
+            }
+        }
+
+        WhitelistSnapshot effective = WhitelistSnapshot.merge(snapshot, groupEntries);
+        effectiveWhitelists.put(ownerUUID, effective);
+        return effective;
+    }
+
+    private void record(String op, UUID ownerUUID, String kind, String value) {
+        storage.record(new WhitelistStorage.Change(op, ownerUUID.toString(), kind, value, null));
+    }
+
+    /**
+     * Whether the owner's whitelist is in memory, so reading or changing it won't touch the disk
+     */
+    public boolean isLoaded(UUID ownerUUID) {
+        return playerWhitelists.containsKey(ownerUUID);
+    }
+
+    /**
+     * Start reading the owner's whitelist if it isn't loaded yet
+     * @return a future that completes, on the storage thread, once it is loaded
+     */
+    public CompletableFuture<?> whenLoaded(UUID ownerUUID) {
+        return isLoaded(ownerUUID) ? CompletableFuture.completedFuture(null) : requestLoad(ownerUUID);
+    }
+
+    /**
+     * The owner's whitelist, read right away if it isn't loaded yet.
+     * Commands and /calmpets wait for whenLoaded first, so they never block the server thread here.
+     */
+    private WhitelistSnapshot loaded(UUID ownerUUID) {
+        WhitelistSnapshot snapshot = playerWhitelists.get(ownerUUID);
+        return snapshot != null ? snapshot : requestLoad(ownerUUID).join();
+    }
+
+    private CompletableFuture<WhitelistSnapshot> requestLoad(UUID ownerUUID) {
+        CompletableFuture<WhitelistSnapshot> pending = loading.get(ownerUUID);
+        if (pending == null) {
+            pending = storage.load(ownerUUID).thenApply(data -> {
+                WhitelistSnapshot loaded = WhitelistSnapshot.of(data);
+                WhitelistSnapshot current = playerWhitelists.putIfAbsent(ownerUUID, loaded);
+                return current != null ? current : loaded;
+            });
+            loading.put(ownerUUID, pending);
+            pending.whenComplete((data, error) -> loading.remove(ownerUUID));
+        }
+        return pending;
+    }
+
+    /**
+     * Drop the whitelists of owners who have been offline for a while. Changes are already
+     * with the storage thread, so they are read back if the owner returns.
+     */
+    private void evictOfflineOwners(MinecraftServer server) {
+        int currentTick = server.getTicks();
+        int evicted = 0;
+
+        Iterator<UUID> iterator = playerWhitelists.keySet().iterator();
+        while (iterator.hasNext()) {
+            UUID ownerUUID = iterator.next();
+            if (server.getPlayerManager().getPlayer(ownerUUID) != null) {
+                offlineSinceTick.remove(ownerUUID);
+                continue;
+            }
+
+            int offlineSince = offlineSinceTick.computeIfAbsent(ownerUUID, k -> currentTick);
+            if (currentTick - offlineSince >= EVICT_AFTER_OFFLINE_TICKS) {
+                iterator.remove();
+                effectiveWhitelists.remove(ownerUUID);
+                offlineSinceTick.remove(ownerUUID);
+                for (Set<UUID> subscribers : mergedSubscribers.values()) {
+                    subscribers.remove(ownerUUID);
                 }
+                evicted++;
             }
         }
+
+        mergedSubscribers.values().removeIf(Set::isEmpty);
+
+        int evictedOwners = evicted;
+        if (evictedOwners > 0) {
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Unloaded pet whitelists of " + evictedOwners + " offline players");
+        }
     }
 
-    private void saveWhitelists() {
-        Path whitelistPath = FabricLoader.getInstance().getConfigDir().resolve(WHITELIST_FILE_NAME);
+    /**
+     * Remove entries for entities that died or despawned, and expired entity entries. Dead
+     * entities are removed from every owner's file on the storage thread, loaded or not; the
+     * loaded snapshots, the merged cache and the groups are then changed back on the server
+     * thread. Expired entries of owners that aren't loaded are pruned once they are.
+     */
+    private void pruneStaleEntities(MinecraftServer server) {
+        Set<UUID> destroyed = destroyedEntities;
+        destroyedEntities = new HashSet<>();
+
+        int groupEntries = removeFromGroups(destroyed);
+        storage.removeEntities(destroyed).thenApply(removedFromFiles -> {
+            // Normally on the storage thread: find loaded owners with expired entries off the tick
+            Set<UUID> owners = new HashSet<>(removedFromFiles.keySet());
+            long now = System.currentTimeMillis();
+            for (Map.Entry<UUID, WhitelistSnapshot> entry : playerWhitelists.entrySet()) {
+                if (!entry.getValue().staleEntityUUIDs(Set.of(), now).isEmpty()) {
+                    owners.add(entry.getKey());
+                }
+            }
+            int fileEntries = removedFromFiles.values().stream().mapToInt(Set::size).sum();
+            return Map.entry(owners, fileEntries);
+        }).thenAcceptAsync(result -> {
+            int removed = groupEntries + result.getValue();
+            long now = System.currentTimeMillis();
+
+            for (UUID ownerUUID : result.getKey()) {
+                WhitelistSnapshot current = playerWhitelists.get(ownerUUID);
+                if (current == null) continue;
+
+                Set<UUID> stale = current.staleEntityUUIDs(destroyed, now);
+                if (stale.isEmpty()) continue;
 
-        try {
-            // Convert UUID keys to strings for JSON serialization
-            Map<String, PlayerWhitelistData> rawData = new HashMap<>();
-            for (Map.Entry<UUID, PlayerWhitelistData> entry : playerWhitelists.entrySet()) {
-                rawData.put(entry.getKey().toString(), entry.getValue());
+                if (!playerWhitelists.replace(ownerUUID, current, current.withoutEntityUUIDs(stale))) continue;
+                effectiveWhitelists.remove(ownerUUID);
+                for (UUID entityUUID : stale) {
+                    // Dead entities are already out of the owner's file
+                    if (!destroyed.contains(entityUUID)) {
+                        record(WhitelistStorage.REMOVE, ownerUUID, WhitelistStorage.ENTITY, entityUUID.toString());
+                        removed++;
+                    }
+                }
             }
 
-            String json = GSON.toJson(rawData);
-            Files.writeString(whitelistPath, json);
-            
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                System.out.println("[EasyPets] Saved pet whitelist to " + WHITELIST_FILE_NAME);
+            if (removed > 0) {
+                prunedEntries += removed;
+                int removedEntries = removed;
+                PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Removed " + removedEntries + " expired or dead entity entries from pet whitelists");
             }
-        } catch (IOException e) {
-            System.err.println("[EasyPets] Failed to save pet whitelist: " + e.getMessage());
-            if (Config.getInstance().isDebugLoggingEnabled()) {
-                e.printStackTrace();
+        }, server);
+    }
+
+    /**
+     * @return how many group entries were removed
+     */
+    private int removeFromGroups(Set<UUID> destroyed) {
+        int removed = 0;
+        if (destroyed.isEmpty()) return removed;
+
+        for (WhitelistGroup group : List.copyOf(groups.values())) {
+            Set<UUID> dead = new HashSet<>(group.entries().entityUUIDs());
+            dead.retainAll(destroyed);
+            if (!dead.isEmpty() && updateGroup(group.name(), entries -> entries.withoutEntityUUIDs(dead))) {
+                removed += dead.size();
             }
         }
+        return removed;
+    }
+
+    private boolean isGroupEntity(UUID entityUUID) {
+        for (WhitelistGroup group : groups.values()) {
+            if (group.entries().entityUUIDs().contains(entityUUID)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Entity entries removed by pruning since startup
+     */
+    public long getPrunedEntryCount() {
+        return prunedEntries;
     }
 
     /**
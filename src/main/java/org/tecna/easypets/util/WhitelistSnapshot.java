@@ -0,0 +1,273 @@
+package org.tecna.easypets.util;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * One owner's whitelist at one point in time. Never modified: a change builds a new snapshot
+ * and PetWhitelistManager swaps it in, so the server thread reads it without locks while
+ * commands change it, and the sets can be handed out as they are.
+ *
+ * Entity UUID entries can expire; the expiry time is kept next to them and the entry still matches
+ * until PetWhitelistManager's pruning removes it.
+ *
+ * Group subscriptions are only names here; PetWhitelistManager resolves them into a merged
+ * snapshot of the owner's and their groups' entries.
+ *
+ * The snapshot also carries the form PetTargetingMixin checks. Entity types become a bitset over
+ * registry raw ids and UUIDs go into open addressed tables of their two halves, so a check
+ * allocates nothing.
+ */
+public final class WhitelistSnapshot {
+
+    public static final WhitelistSnapshot EMPTY = new WhitelistSnapshot(Set.of(), Set.of(), Set.of(), Map.of(), Set.of());
+
+    private final Set<UUID> players;
+    private final Set<String> entityTypes;
+    private final Set<UUID> entityUUIDs;
+    private final Map<UUID, Long> entityUUIDExpiry; // Epoch millis, only for entries that expire
+    private final Set<String> groups;
+
+    private final BitSet entityTypeIds = new BitSet(Registries.ENTITY_TYPE.size());
+    private final UuidSet playerTable;
+    private final UuidSet entityUUIDTable;
+
+    private WhitelistSnapshot(Set<UUID> players, Set<String> entityTypes, Set<UUID> entityUUIDs,
+                              Map<UUID, Long> entityUUIDExpiry, Set<String> groups) {
+        this.players = Set.copyOf(players);
+        this.entityTypes = Set.copyOf(entityTypes);
+        this.entityUUIDs = Set.copyOf(entityUUIDs);
+        this.entityUUIDExpiry = Map.copyOf(entityUUIDExpiry);
+        this.groups = Set.copyOf(groups);
+
+        for (String entityTypeId : this.entityTypes) {
+            Identifier typeId = Identifier.tryParse(entityTypeId);
+            // Types whose mod was removed stay in the file but can't match anything
+            if (typeId == null || !Registries.ENTITY_TYPE.containsId(typeId)) continue;
+
+            entityTypeIds.set(Registries.ENTITY_TYPE.getRawId(Registries.ENTITY_TYPE.get(typeId)));
+        }
+        this.playerTable = new UuidSet(this.players);
+        this.entityUUIDTable = new UuidSet(this.entityUUIDs);
+    }
+
+    public static WhitelistSnapshot of(PetWhitelistManager.PlayerWhitelistData data) {
+        return new WhitelistSnapshot(data.whitelistedPlayers, data.whitelistedEntityTypes, data.whitelistedEntityUUIDs, data.entityUUIDExpiry, data.subscribedGroups);
+    }
+
+    public static WhitelistSnapshot of(PetWhitelistManager.GroupData data) {
+        return new WhitelistSnapshot(data.whitelistedPlayers, data.whitelistedEntityTypes, data.whitelistedEntityUUIDs, Map.of(), Set.of());
+    }
+
+    /**
+     * Everything an owner's pets leave alone: their own entries plus those of their groups
+     */
+    public static WhitelistSnapshot merge(WhitelistSnapshot own, List<WhitelistSnapshot> groups) {
+        if (groups.isEmpty()) return own;
+        // Members who only follow one group share its snapshot instead of each holding a copy
+        if (groups.size() == 1 && own.size() == own.groups.size()) return groups.get(0);
+
+        Set<UUID> players = new HashSet<>(own.players);
+        Set<String> entityTypes = new HashSet<>(own.entityTypes);
+        Set<UUID> entityUUIDs = new HashSet<>(own.entityUUIDs);
+        for (WhitelistSnapshot group : groups) {
+            players.addAll(group.players);
+            entityTypes.addAll(group.entityTypes);
+            entityUUIDs.addAll(group.entityUUIDs);
+        }
+        return new WhitelistSnapshot(players, entityTypes, entityUUIDs, Map.of(), own.groups);
+    }
+
+    public boolean matches(Entity target) {
+        // Players are only matched by name, never by type
+        if (target instanceof ServerPlayerEntity) {
+            return playerTable.contains(target.getUuid());
+        }
+
+        if (entityUUIDTable.contains(target.getUuid())) {
+            return true;
+        }
+
+        int rawId = Registries.ENTITY_TYPE.getRawId(target.getType());
+        return rawId >= 0 && entityTypeIds.get(rawId);
+    }
+
+    public Set<UUID> players() {
+        return players;
+    }
+
+    public Set<String> entityTypes() {
+        return entityTypes;
+    }
+
+    public Set<UUID> entityUUIDs() {
+        return entityUUIDs;
+    }
+
+    public Map<UUID, Long> entityUUIDExpiry() {
+        return entityUUIDExpiry;
+    }
+
+    public Set<String> groups() {
+        return groups;
+    }
+
+    public int size() {
+        return players.size() + entityTypes.size() + entityUUIDs.size() + groups.size();
+    }
+
+    /**
+     * @return a snapshot with the player added or removed, or this one if nothing changed
+     */
+    public WhitelistSnapshot withPlayer(UUID playerUUID, boolean whitelisted) {
+        Set<UUID> updated = updated(players, playerUUID, whitelisted);
+        return updated == null ? this : new WhitelistSnapshot(updated, entityTypes, entityUUIDs, entityUUIDExpiry, groups);
+    }
+
+    public WhitelistSnapshot withEntityType(String entityTypeId, boolean whitelisted) {
+        Set<String> updated = updated(entityTypes, entityTypeId, whitelisted);
+        return updated == null ? this : new WhitelistSnapshot(players, updated, entityUUIDs, entityUUIDExpiry, groups);
+    }
+
+    /**
+     * Adding an entity that was going to expire keeps it for good instead
+     */
+    public WhitelistSnapshot withEntityUUID(UUID entityUUID, boolean whitelisted) {
+        Set<UUID> updated = updated(entityUUIDs, entityUUID, whitelisted);
+        if (updated == null && !(whitelisted && entityUUIDExpiry.containsKey(entityUUID))) return this;
+
+        Map<UUID, Long> expiry = new HashMap<>(entityUUIDExpiry);
+        expiry.remove(entityUUID);
+        return new WhitelistSnapshot(players, entityTypes, updated != null ? updated : entityUUIDs, expiry, groups);
+    }
+
+    /**
+     * @return a snapshot with the entity whitelisted until the given time, or this one if it already
+     * is for longer
+     */
+    public WhitelistSnapshot withExpiringEntityUUID(UUID entityUUID, long expiresAt) {
+        if (entityUUIDs.contains(entityUUID)) {
+            Long currentExpiry = entityUUIDExpiry.get(entityUUID);
+            if (currentExpiry == null || currentExpiry >= expiresAt) return this;
+        }
+
+        Set<UUID> updated = new HashSet<>(entityUUIDs);
+        updated.add(entityUUID);
+        Map<UUID, Long> expiry = new HashMap<>(entityUUIDExpiry);
+        expiry.put(entityUUID, expiresAt);
+        return new WhitelistSnapshot(players, entityTypes, updated, expiry, groups);
+    }
+
+    /**
+     * Entity entries that have expired or whose entity is gone
+     */
+    public Set<UUID> staleEntityUUIDs(Set<UUID> destroyedEntities, long now) {
+        Set<UUID> stale = new HashSet<>();
+        for (Map.Entry<UUID, Long> entry : entityUUIDExpiry.entrySet()) {
+            if (entry.getValue() <= now) {
+                stale.add(entry.getKey());
+            }
+        }
+        if (!destroyedEntities.isEmpty()) {
+            for (UUID entityUUID : entityUUIDs) {
+                if (destroyedEntities.contains(entityUUID)) {
+                    stale.add(entityUUID);
+                }
+            }
+        }
+        return stale;
+    }
+
+    public WhitelistSnapshot withoutEntityUUIDs(Set<UUID> removed) {
+        Set<UUID> updated = new HashSet<>(entityUUIDs);
+        updated.removeAll(removed);
+        Map<UUID, Long> expiry = new HashMap<>(entityUUIDExpiry);
+        expiry.keySet().removeAll(removed);
+        return new WhitelistSnapshot(players, entityTypes, updated, expiry, groups);
+    }
+
+    public WhitelistSnapshot withGroup(String groupName, boolean subscribed) {
+        Set<String> updated = updated(groups, groupName, subscribed);
+        return updated == null ? this : new WhitelistSnapshot(players, entityTypes, entityUUIDs, entityUUIDExpiry, updated);
+    }
+
+    private static <T> Set<T> updated(Set<T> set, T value, boolean whitelisted) {
+        if (set.contains(value) == whitelisted) return null;
+
+        Set<T> copy = new HashSet<>(set);
+        if (whitelisted) {
+            copy.add(value);
+        } else {
+            copy.remove(value);
+        }
+        return copy;
+    }
+
+    /**
+     * Read-only UUID set with linear probing over primitive arrays
+     */
+    private static final class UuidSet {
+        private final long[] mostSignificant;
+        private final long[] leastSignificant;
+        private final boolean[] used; // The nil UUID is all zeros, so zero can't mark an empty slot
+        private final int mask;
+        private final int size;
+
+        UuidSet(Collection<UUID> uuids) {
+            // Keep the table at most half full so probes stay short
+            int capacity = Integer.highestOneBit(Math.max(4, uuids.size() * 2 - 1)) << 1;
+            this.mostSignificant = new long[capacity];
+            this.leastSignificant = new long[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+
+            int size = 0;
+            for (UUID uuid : uuids) {
+                long most = uuid.getMostSignificantBits();
+                long least = uuid.getLeastSignificantBits();
+                int slot = slotFor(most, least);
+                while (used[slot] && !(mostSignificant[slot] == most && leastSignificant[slot] == least)) {
+                    slot = (slot + 1) & mask;
+                }
+                if (!used[slot]) {
+                    used[slot] = true;
+                    mostSignificant[slot] = most;
+                    leastSignificant[slot] = least;
+                    size++;
+                }
+            }
+            this.size = size;
+        }
+
+        boolean contains(UUID uuid) {
+            if (size == 0) return false;
+
+            long most = uuid.getMostSignificantBits();
+            long least = uuid.getLeastSignificantBits();
+            int slot = slotFor(most, least);
+            while (used[slot]) {
+                if (mostSignificant[slot] == most && leastSignificant[slot] == least) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private int slotFor(long most, long least) {
+            long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & mask;
+        }
+    }
+}
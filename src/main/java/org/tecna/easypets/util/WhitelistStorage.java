@@ -0,0 +1,546 @@
+package org.tecna.easypets.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind, per-owner persistence for PetWhitelistManager.
+ * Every owner's whitelist is its own shard in config/easypets_whitelist/<uuid>.json, read on a
+ * background thread only when the owner needs it. Changes are handed to the same thread, which
+ * appends each as one line to changes.journal, so the server thread never serializes or writes
+ * anything. A few seconds after the last change the thread rewrites the shards of the owners that
+ * changed and empties the journal.
+ *
+ * Whitelist groups are few and small, so they all live in groups.json, which is read once at
+ * startup and rewritten in the background whenever a group changes.
+ *
+ * entity_index.json maps every whitelisted entity UUID to the owners whose shards hold it, so an
+ * entity that dies can be removed from owners that aren't loaded without reading every shard.
+ *
+ * Shards are written to a temporary file and renamed over the old one, so a crash leaves either
+ * the old or the new shard. Journal changes are set operations, so replaying a journal over shards
+ * that already contain it gives the same result.
+ */
+public class WhitelistStorage {
+
+    private static final Gson SHARD_GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson JOURNAL_GSON = new Gson();
+    private static final Type LEGACY_TYPE = new TypeToken<Map<String, PetWhitelistManager.PlayerWhitelistData>>(){}.getType();
+    private static final Type GROUPS_TYPE = new TypeToken<Map<String, PetWhitelistManager.GroupData>>(){}.getType();
+    private static final Type ENTITY_INDEX_TYPE = new TypeToken<Map<UUID, Set<String>>>(){}.getType();
+
+    private static final String SHARD_DIRECTORY = "easypets_whitelist";
+    private static final String JOURNAL_FILE_NAME = "changes.journal";
+    private static final String GROUPS_FILE_NAME = "groups.json";
+    private static final String ENTITY_INDEX_FILE_NAME = "entity_index.json";
+    private static final String LEGACY_FILE_NAME = "easypets_whitelist.json";
+    private static final String LEGACY_JOURNAL_FILE_NAME = "easypets_whitelist.journal";
+
+    private static final long COMPACT_DELAY_SECONDS = 5;
+    private static final int MAX_JOURNAL_CHANGES = 256; // Compact right away past this, even if changes keep coming
+    private static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    public static final String ADD = "add";
+    public static final String REMOVE = "remove";
+    public static final String CLEAR = "clear";
+
+    public static final String PLAYER = "player";
+    public static final String ENTITY_TYPE = "entity_type";
+    public static final String ENTITY = "entity";
+    public static final String GROUP = "group";
+
+    private final Path configDirectory;
+    private final Path shardDirectory;
+    private final Path journalPath;
+    private final ScheduledExecutorService worker;
+
+    // Only touched on the worker thread. Owners with changes that aren't in their shard yet.
+    private final Map<String, PetWhitelistManager.PlayerWhitelistData> changedShards = new HashMap<>();
+    private BufferedWriter journalWriter;
+    private int journalChanges = 0;
+    private ScheduledFuture<?> pendingCompaction;
+
+    // Owners whitelisting each entity UUID. Only changed on the worker thread; the server thread
+    // just checks whether an entity is in it.
+    private final Map<UUID, Set<String>> entityOwners = new ConcurrentHashMap<>();
+    private boolean entityIndexChanged = false;
+
+    /**
+     * One whitelist change as written to the journal
+     * @param expiresAt epoch millis an added entity entry expires at, or null if it doesn't
+     */
+    public record Change(String op, String owner, String kind, String value, Long expiresAt) {}
+
+    public WhitelistStorage(Path configDirectory) {
+        this.configDirectory = configDirectory;
+        this.shardDirectory = configDirectory.resolve(SHARD_DIRECTORY);
+        this.journalPath = shardDirectory.resolve(JOURNAL_FILE_NAME);
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EasyPets-Whitelist");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Queued first, so no shard is read before it is up to date
+        worker.execute(this::recover);
+    }
+
+    /**
+     * Read an owner's whitelist in the background
+     * @return a copy the caller may keep and modify, empty if the owner has none
+     */
+    public CompletableFuture<PetWhitelistManager.PlayerWhitelistData> load(UUID ownerUUID) {
+        String owner = ownerUUID.toString();
+        return CompletableFuture.supplyAsync(() -> {
+            // Changes that aren't compacted yet only exist here
+            PetWhitelistManager.PlayerWhitelistData changed = changedShards.get(owner);
+            return changed != null ? copyOf(changed) : readShard(owner);
+        }, worker);
+    }
+
+    /**
+     * Read every whitelist group. Blocks until the file has been read.
+     */
+    public Map<String, PetWhitelistManager.GroupData> loadGroups() {
+        Path path = shardDirectory.resolve(GROUPS_FILE_NAME);
+        try {
+            if (Files.exists(path)) {
+                Map<String, PetWhitelistManager.GroupData> groups = SHARD_GSON.fromJson(Files.readString(path), GROUPS_TYPE);
+                if (groups != null) return groups;
+            }
+        } catch (Exception e) {
+            System.err.println("[EasyPets] Failed to load pet whitelist groups: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to load pet whitelist groups", e);
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Queue the groups to be written
+     * @param groups a copy the caller won't touch again
+     */
+    public void saveGroups(Map<String, PetWhitelistManager.GroupData> groups) {
+        worker.execute(() -> {
+            try {
+                Files.createDirectories(shardDirectory);
+                writeAtomically(shardDirectory.resolve(GROUPS_FILE_NAME), SHARD_GSON.toJson(groups));
+            } catch (IOException e) {
+                System.err.println("[EasyPets] Failed to save pet whitelist groups: " + e.getMessage());
+                PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to save pet whitelist groups", e);
+            }
+        });
+    }
+
+    /**
+     * Queue a change to be journaled. Never blocks.
+     */
+    public void record(Change change) {
+        worker.execute(() -> journal(change));
+    }
+
+    /**
+     * Whether any owner's whitelist has this entity UUID, loaded or not. Safe to call from any thread.
+     */
+    public boolean isWhitelistedEntity(UUID entityUUID) {
+        return entityOwners.containsKey(entityUUID);
+    }
+
+    /**
+     * Remove entities that no longer exist from every owner's shard that has them, loaded or not
+     * @return the removed entity UUIDs of each owner they were removed from
+     */
+    public CompletableFuture<Map<UUID, Set<UUID>>> removeEntities(Set<UUID> entityUUIDs) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<UUID, Set<UUID>> removed = new HashMap<>();
+            for (UUID entityUUID : entityUUIDs) {
+                Set<String> owners = entityOwners.get(entityUUID);
+                if (owners == null) continue;
+
+                for (String owner : List.copyOf(owners)) {
+                    journal(new Change(REMOVE, owner, ENTITY, entityUUID.toString(), null));
+                    removed.computeIfAbsent(UUID.fromString(owner), k -> new HashSet<>()).add(entityUUID);
+                }
+            }
+            return removed;
+        }, worker);
+    }
+
+    private void journal(Change change) {
+        applyToShard(change);
+        try {
+            if (journalWriter == null) {
+                Files.createDirectories(shardDirectory);
+                journalWriter = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            journalWriter.write(JOURNAL_GSON.toJson(change));
+            journalWriter.newLine();
+            journalWriter.flush();
+            journalChanges++;
+        } catch (IOException e) {
+            System.err.println("[EasyPets] Failed to write pet whitelist journal: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to write pet whitelist journal", e);
+        }
+        scheduleCompaction();
+    }
+
+    /**
+     * Write any journaled changes to their shards now and wait for it, for server shutdown
+     */
+    public void flush() {
+        try {
+            worker.submit(this::compact).get(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("[EasyPets] Failed to save pet whitelist: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Split the old single whitelist file into shards, then replay whatever the last run left in the journal.
+     * The replay doesn't depend on the migration: the next compaction deletes the journal, so skipping
+     * it would lose its changes.
+     */
+    private void recover() {
+        boolean hasEntityIndex = readEntityIndex();
+
+        int migratedOwners = -1;
+        try {
+            migratedOwners = readLegacyFile();
+        } catch (Exception e) {
+            // The old file stays where it is, so migration is tried again on the next start
+            changedShards.clear();
+            journalChanges = 0;
+            System.err.println("[EasyPets] Failed to migrate old pet whitelist file: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to migrate old pet whitelist file", e);
+        }
+
+        try {
+            if (Files.exists(journalPath)) {
+                int replayed = replay(journalPath);
+                journalChanges += replayed;
+                PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Replayed " + replayed + " whitelist journal changes");
+            }
+        } catch (Exception e) {
+            System.err.println("[EasyPets] Failed to load pet whitelist: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to load pet whitelist", e);
+            keepUnreadJournal();
+        }
+
+        compact();
+
+        // Build the index from the shards on the first start with it, or after migrating shards it doesn't cover
+        if (!hasEntityIndex || migratedOwners >= 0) {
+            rebuildEntityIndex();
+        }
+
+        // Only retire the old file once its entries are in the shards
+        if (migratedOwners >= 0 && changedShards.isEmpty()) {
+            try {
+                // Kept as a backup rather than deleted
+                Files.move(configDirectory.resolve(LEGACY_FILE_NAME), configDirectory.resolve(LEGACY_FILE_NAME + ".migrated"), StandardCopyOption.REPLACE_EXISTING);
+                Files.deleteIfExists(configDirectory.resolve(LEGACY_JOURNAL_FILE_NAME));
+                System.out.println("[EasyPets] Migrated pet whitelists for " + migratedOwners + " players to " + SHARD_DIRECTORY + "/");
+            } catch (IOException e) {
+                System.err.println("[EasyPets] Failed to move old pet whitelist file: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return false if there is no index to read yet
+     */
+    private boolean readEntityIndex() {
+        Path path = shardDirectory.resolve(ENTITY_INDEX_FILE_NAME);
+        try {
+            if (!Files.exists(path)) return false;
+
+            Map<UUID, Set<String>> index = SHARD_GSON.fromJson(Files.readString(path), ENTITY_INDEX_TYPE);
+            if (index != null) {
+                index.forEach((entityUUID, owners) -> entityOwners.put(entityUUID, new HashSet<>(owners)));
+            }
+            return true;
+        } catch (Exception e) {
+            System.err.println("[EasyPets] Failed to load pet whitelist entity index, rebuilding it: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to load pet whitelist entity index", e);
+            entityOwners.clear();
+            return false;
+        }
+    }
+
+    private void rebuildEntityIndex() {
+        entityOwners.clear();
+        if (Files.isDirectory(shardDirectory)) {
+            try (Stream<Path> files = Files.list(shardDirectory)) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    String fileName = path.getFileName().toString();
+                    if (!fileName.endsWith(".json") || fileName.equals(GROUPS_FILE_NAME) || fileName.equals(ENTITY_INDEX_FILE_NAME)) continue;
+
+                    String owner = fileName.substring(0, fileName.length() - ".json".length());
+                    for (UUID entityUUID : readShard(owner).whitelistedEntityUUIDs) {
+                        indexEntity(entityUUID, owner);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("[EasyPets] Failed to build pet whitelist entity index: " + e.getMessage());
+                PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to build pet whitelist entity index", e);
+                return;
+            }
+        }
+
+        try {
+            writeEntityIndex();
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Built pet whitelist entity index with " + entityOwners.size() + " entities");
+        } catch (IOException e) {
+            System.err.println("[EasyPets] Failed to save pet whitelist entity index: " + e.getMessage());
+        }
+    }
+
+    private void writeEntityIndex() throws IOException {
+        Files.createDirectories(shardDirectory);
+        writeAtomically(shardDirectory.resolve(ENTITY_INDEX_FILE_NAME), SHARD_GSON.toJson(entityOwners, ENTITY_INDEX_TYPE));
+        entityIndexChanged = false;
+    }
+
+    private void indexEntity(UUID entityUUID, String owner) {
+        entityOwners.computeIfAbsent(entityUUID, k -> new HashSet<>()).add(owner);
+        entityIndexChanged = true;
+    }
+
+    private void unindexEntity(UUID entityUUID, String owner) {
+        Set<String> owners = entityOwners.get(entityUUID);
+        if (owners != null && owners.remove(owner)) {
+            if (owners.isEmpty()) {
+                entityOwners.remove(entityUUID);
+            }
+            entityIndexChanged = true;
+        }
+    }
+
+    /**
+     * Move a journal that couldn't be read out of the way, so compaction doesn't delete it with its changes
+     */
+    private void keepUnreadJournal() {
+        try {
+            Files.move(journalPath, journalPath.resolveSibling(JOURNAL_FILE_NAME + ".unread"), StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("[EasyPets] Kept unreadable pet whitelist journal as " + JOURNAL_FILE_NAME + ".unread");
+        } catch (IOException e) {
+            System.err.println("[EasyPets] Failed to keep unreadable pet whitelist journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queue the old single whitelist file and its journal to be written as shards
+     * @return the number of owners read, or -1 if there is no old file
+     */
+    private int readLegacyFile() throws IOException {
+        Path legacyPath = configDirectory.resolve(LEGACY_FILE_NAME);
+        if (!Files.exists(legacyPath)) return -1;
+
+        Map<String, PetWhitelistManager.PlayerWhitelistData> legacy = SHARD_GSON.fromJson(Files.readString(legacyPath), LEGACY_TYPE);
+        if (legacy != null) {
+            changedShards.putAll(legacy);
+            journalChanges += legacy.size();
+        }
+
+        Path legacyJournalPath = configDirectory.resolve(LEGACY_JOURNAL_FILE_NAME);
+        if (Files.exists(legacyJournalPath)) {
+            journalChanges += replay(legacyJournalPath);
+        }
+        return legacy != null ? legacy.size() : 0;
+    }
+
+    private int replay(Path path) throws IOException {
+        int replayed = 0;
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            if (line.isBlank()) continue;
+            try {
+                applyToShard(JOURNAL_GSON.fromJson(line, Change.class));
+                replayed++;
+            } catch (JsonParseException | IllegalArgumentException e) {
+                // Only the last line can be cut short by a crash, and it is the only one lost
+                PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Skipped unreadable whitelist journal line: " + line);
+            }
+        }
+        return replayed;
+    }
+
+    private void scheduleCompaction() {
+        if (pendingCompaction != null) {
+            pendingCompaction.cancel(false);
+        }
+
+        if (journalChanges >= MAX_JOURNAL_CHANGES) {
+            compact();
+        } else {
+            pendingCompaction = worker.schedule(this::compact, COMPACT_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void compact() {
+        pendingCompaction = null;
+        if (journalChanges == 0) return;
+
+        try {
+            Files.createDirectories(shardDirectory);
+            for (Map.Entry<String, PetWhitelistManager.PlayerWhitelistData> entry : changedShards.entrySet()) {
+                writeShard(entry.getKey(), entry.getValue());
+            }
+            if (entityIndexChanged) {
+                writeEntityIndex();
+            }
+
+            // Everything journaled so far is in the shards now
+            if (journalWriter != null) {
+                journalWriter.close();
+                journalWriter = null;
+            }
+            Files.deleteIfExists(journalPath);
+
+            int compacted = journalChanges;
+            int shards = changedShards.size();
+            changedShards.clear();
+            journalChanges = 0;
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Compacted " + compacted + " whitelist changes into " + shards + " shards");
+        } catch (IOException e) {
+            // The journal is kept, so the changes are replayed on the next start
+            System.err.println("[EasyPets] Failed to save pet whitelist: " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to save pet whitelist", e);
+        }
+    }
+
+    private Path shardPath(String owner) {
+        return shardDirectory.resolve(owner + ".json");
+    }
+
+    private PetWhitelistManager.PlayerWhitelistData readShard(String owner) {
+        Path path = shardPath(owner);
+        try {
+            if (Files.exists(path)) {
+                PetWhitelistManager.PlayerWhitelistData data = SHARD_GSON.fromJson(Files.readString(path), PetWhitelistManager.PlayerWhitelistData.class);
+                if (data != null) return data;
+            }
+        } catch (Exception e) {
+            System.err.println("[EasyPets] Failed to load pet whitelist for " + owner + ": " + e.getMessage());
+            PetLogger.debug(PetLogger.Category.WHITELIST, () -> "Failed to load pet whitelist shard " + owner, e);
+        }
+        return new PetWhitelistManager.PlayerWhitelistData();
+    }
+
+    private void writeShard(String owner, PetWhitelistManager.PlayerWhitelistData data) throws IOException {
+        Path path = shardPath(owner);
+        if (data.whitelistedPlayers.isEmpty() && data.whitelistedEntityTypes.isEmpty() && data.whitelistedEntityUUIDs.isEmpty()
+                && data.subscribedGroups.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        writeAtomically(path, SHARD_GSON.toJson(data));
+    }
+
+    private static void writeAtomically(Path path, String json) throws IOException {
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporaryPath, json);
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void applyToShard(Change change) {
+        if (change == null || change.owner() == null) return;
+
+        PetWhitelistManager.PlayerWhitelistData data = changedShards.get(change.owner());
+        if (data == null) {
+            // Read even when clearing, so the entities it had are dropped from the index
+            data = readShard(change.owner());
+            changedShards.put(change.owner(), data);
+        }
+
+        if (CLEAR.equals(change.op())) {
+            for (UUID entityUUID : data.whitelistedEntityUUIDs) {
+                unindexEntity(entityUUID, change.owner());
+            }
+        } else if (ENTITY.equals(change.kind())) {
+            UUID entityUUID = UUID.fromString(change.value());
+            if (ADD.equals(change.op())) {
+                indexEntity(entityUUID, change.owner());
+            } else {
+                unindexEntity(entityUUID, change.owner());
+            }
+        }
+        apply(data, change);
+    }
+
+    static void apply(PetWhitelistManager.PlayerWhitelistData data, Change change) {
+        if (CLEAR.equals(change.op())) {
+            data.whitelistedPlayers.clear();
+            data.whitelistedEntityTypes.clear();
+            data.whitelistedEntityUUIDs.clear();
+            data.entityUUIDExpiry.clear();
+            data.subscribedGroups.clear();
+            return;
+        }
+        if (change.kind() == null) return;
+
+        boolean add = ADD.equals(change.op());
+        switch (change.kind()) {
+            case PLAYER -> update(data.whitelistedPlayers, UUID.fromString(change.value()), add);
+            case ENTITY_TYPE -> update(data.whitelistedEntityTypes, change.value(), add);
+            case ENTITY -> {
+                UUID entityUUID = UUID.fromString(change.value());
+                update(data.whitelistedEntityUUIDs, entityUUID, add);
+                if (add && change.expiresAt() != null) {
+                    data.entityUUIDExpiry.put(entityUUID, change.expiresAt());
+                } else {
+                    data.entityUUIDExpiry.remove(entityUUID);
+                }
+            }
+            case GROUP -> update(data.subscribedGroups, change.value(), add);
+            default -> { }
+        }
+    }
+
+    private static <T> void update(Set<T> set, T value, boolean add) {
+        if (add) {
+            set.add(value);
+        } else {
+            set.remove(value);
+        }
+    }
+
+    private static PetWhitelistManager.PlayerWhitelistData copyOf(PetWhitelistManager.PlayerWhitelistData data) {
+        PetWhitelistManager.PlayerWhitelistData copy = new PetWhitelistManager.PlayerWhitelistData();
+        copy.whitelistedPlayers = new HashSet<>(data.whitelistedPlayers);
+        copy.whitelistedEntityTypes = new HashSet<>(data.whitelistedEntityTypes);
+        copy.whitelistedEntityUUIDs = new HashSet<>(data.whitelistedEntityUUIDs);
+        copy.entityUUIDExpiry = new HashMap<>(data.entityUUIDExpiry);
+        copy.subscribedGroups = new HashSet<>(data.subscribedGroups);
+        return copy;
+    }
+}